@@ -3,21 +3,30 @@ package com.florafolio.controller;
 import com.florafolio.dto.auth.ResponseDTO;
 import com.florafolio.dto.plant.CreatePlantRequestDTO;
 import com.florafolio.dto.plant.PlantDTO;
+import com.florafolio.dto.plant.PlantImportErrorDTO;
+import com.florafolio.dto.plant.PlantImportResponseDTO;
 import com.florafolio.dto.plant.PlantResponseDTO;
 import com.florafolio.dto.plant.UpdatePlantRequestDTO;
 import com.florafolio.model.Plant;
+import com.florafolio.service.PlantCacheService;
+import com.florafolio.service.PlantImportReport;
+import com.florafolio.service.PlantImportService;
 import com.florafolio.service.PlantService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -28,6 +37,12 @@ public class AdminPlantController {
     @Autowired
     private PlantService plantService;
     
+    @Autowired
+    private PlantCacheService plantCacheService;
+    
+    @Autowired
+    private PlantImportService plantImportService;
+    
     // Converter Plant para PlantDTO
     private PlantDTO convertToDTO(Plant plant) {
         return new PlantDTO(
@@ -88,6 +103,66 @@ public class AdminPlantController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    // Endpoint para importar plantas em massa a partir de um CSV com cabeçalho (apenas admin)
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<PlantImportResponseDTO> importPlantsCsv(InputStream body) {
+        return importPlants(body, PlantImportService.Format.CSV);
+    }
+    
+    // Endpoint para importar plantas em massa a partir de NDJSON, um objeto por linha (apenas admin)
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<PlantImportResponseDTO> importPlantsNdjson(InputStream body) {
+        return importPlants(body, PlantImportService.Format.NDJSON);
+    }
+    
+    private ResponseEntity<PlantImportResponseDTO> importPlants(InputStream body, PlantImportService.Format format) {
+        PlantImportReport report;
+        try {
+            report = plantImportService.importPlants(body, format);
+        } catch (IllegalArgumentException e) {
+            PlantImportResponseDTO response = new PlantImportResponseDTO(
+                "error",
+                "Erro ao ler o arquivo de importação: " + e.getMessage(),
+                0,
+                0,
+                null,
+                false
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        List<PlantImportErrorDTO> errorDTOs = new ArrayList<>();
+        for (PlantImportReport.RowError error : report.getErrors()) {
+            errorDTOs.add(new PlantImportErrorDTO(error.getLine(), error.getMessage()));
+        }
+        
+        // Leitura interrompida no meio do arquivo: o relatório parcial acompanha o erro
+        if (report.getReadError() != null) {
+            PlantImportResponseDTO response = new PlantImportResponseDTO(
+                "error",
+                "Erro ao ler o arquivo de importação: " + report.getReadError() + ". Antes do erro: "
+                    + report.getImported() + " plantas importadas, " + report.getFailed() + " linhas com erro",
+                report.getImported(),
+                report.getFailed(),
+                errorDTOs,
+                report.isErrorsTruncated()
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        PlantImportResponseDTO response = new PlantImportResponseDTO(
+            report.getFailed() == 0 ? "success" : "error",
+            "Importação concluída: " + report.getImported() + " plantas importadas, "
+                + report.getFailed() + " linhas com erro",
+            report.getImported(),
+            report.getFailed(),
+            errorDTOs,
+            report.isErrorsTruncated()
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+    
     // Endpoint para atualizar planta existente (apenas admin)
     @PutMapping("/{id}")
     public ResponseEntity<ResponseDTO> updatePlant(
@@ -135,4 +210,20 @@ public class AdminPlantController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
     }
+    
+    // Endpoint para consultar acertos e falhas do cache de plantas (apenas admin)
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Long>> getCacheStats() {
+        return ResponseEntity.ok(plantCacheService.getStats());
+    }
+    
+    // A planta foi alterada por outra requisição entre a leitura e a gravação (coluna de versão)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ResponseDTO> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e) {
+        ResponseDTO response = new ResponseDTO(
+            "error",
+            "A planta foi alterada por outra requisição; carregue-a novamente e tente de novo"
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
 }
\ No newline at end of file
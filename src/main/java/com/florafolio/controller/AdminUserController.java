@@ -0,0 +1,106 @@
+package com.florafolio.controller;
+
+import com.florafolio.dto.auth.UserPageResponseDTO;
+import com.florafolio.dto.auth.UserSummaryDTO;
+import com.florafolio.repository.UserSummary;
+import com.florafolio.service.UserPage;
+import com.florafolio.service.UserService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/users")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AdminUserController {
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Converter UserSummary para UserSummaryDTO
+    private UserSummaryDTO convertToDTO(UserSummary user) {
+        return new UserSummaryDTO(
+            user.getId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getRole()
+        );
+    }
+    
+    // Endpoint para listar os usuários paginados por cursor, com filtros de papel e prefixo do nome (apenas ADMIN)
+    @GetMapping
+    public ResponseEntity<UserPageResponseDTO> getUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        
+        UserPage page;
+        try {
+            page = userService.getUsersPage(role, prefix, cursor, size);
+        } catch (IllegalArgumentException e) {
+            UserPageResponseDTO response = new UserPageResponseDTO(
+                "error",
+                e.getMessage(),
+                null,
+                null
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        List<UserSummaryDTO> users = new ArrayList<>();
+        for (UserSummary user : page.getUsers()) {
+            users.add(convertToDTO(user));
+        }
+        UserPageResponseDTO response = new UserPageResponseDTO(
+            "success",
+            "Usuários encontrados com sucesso",
+            users,
+            page.getNextCursor()
+        );
+        return ResponseEntity.ok(response);
+    }
+    
+    // Endpoint para exportar os usuários filtrados em NDJSON, um por linha (apenas ADMIN)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> exportUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String prefix) {
+        
+        // Valida os filtros antes de iniciar o streaming, quando ainda é possível responder 400
+        try {
+            userService.resolveRole(role);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            userService.streamUsers(role, prefix, user -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(convertToDTO(user)));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.florafolio.controller;
+
+import com.florafolio.model.Plant;
+import com.florafolio.repository.PlantSummary;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Interpreta o parâmetro "fields" (ex.: fields=id,popularName) e monta cada planta só com os campos pedidos
+final class PlantFieldSelector {
+    // Campos aceitos, na ordem em que aparecem na resposta
+    private static final List<String> FIELDS = List.of(
+        "id", "popularName", "scientificName", "description", "family", "origin", "careInstructions", "imageUrl");
+    // Campos disponíveis na projeção PlantSummary (sem as colunas de texto longo)
+    private static final Set<String> SUMMARY_FIELDS = Set.of(
+        "id", "popularName", "scientificName", "family", "imageUrl");
+
+    private PlantFieldSelector() {}
+
+    // Campos solicitados, na ordem canônica
+    static List<String> parse(String fields) {
+        List<String> requested = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (!name.isEmpty()) {
+                if (!FIELDS.contains(name)) {
+                    throw new IllegalArgumentException("Campo inválido: " + name);
+                }
+                requested.add(name);
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo em fields");
+        }
+        List<String> selected = new ArrayList<>();
+        for (String field : FIELDS) {
+            if (requested.contains(field)) {
+                selected.add(field);
+            }
+        }
+        return selected;
+    }
+
+    // Indica se os campos podem ser atendidos pela projeção, sem ler as colunas de texto longo
+    static boolean isSummary(List<String> fields) {
+        return SUMMARY_FIELDS.containsAll(fields);
+    }
+
+    static Map<String, Object> select(Plant plant, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id":
+                    values.put(field, plant.getId());
+                    break;
+                case "popularName":
+                    values.put(field, plant.getPopularName());
+                    break;
+                case "scientificName":
+                    values.put(field, plant.getScientificName());
+                    break;
+                case "description":
+                    values.put(field, plant.getDescription());
+                    break;
+                case "family":
+                    values.put(field, plant.getFamily());
+                    break;
+                case "origin":
+                    values.put(field, plant.getOrigin());
+                    break;
+                case "careInstructions":
+                    values.put(field, plant.getCareInstructions());
+                    break;
+                default:
+                    values.put(field, plant.getImageUrl());
+                    break;
+            }
+        }
+        return values;
+    }
+
+    static Map<String, Object> select(PlantSummary summary, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id":
+                    values.put(field, summary.getId());
+                    break;
+                case "popularName":
+                    values.put(field, summary.getPopularName());
+                    break;
+                case "scientificName":
+                    values.put(field, summary.getScientificName());
+                    break;
+                case "family":
+                    values.put(field, summary.getFamily());
+                    break;
+                default:
+                    values.put(field, summary.getImageUrl());
+                    break;
+            }
+        }
+        return values;
+    }
+}
\ No newline at end of file
@@ -1,17 +1,36 @@
 package com.florafolio.controller;
 
 import com.florafolio.dto.plant.PlantDTO;
+import com.florafolio.dto.plant.PlantFieldsResponseDTO;
+import com.florafolio.dto.plant.PlantPageResponseDTO;
 import com.florafolio.dto.plant.PlantResponseDTO;
+import com.florafolio.dto.plant.PlantSuggestResponseDTO;
+import com.florafolio.dto.plant.PlantSuggestionDTO;
 import com.florafolio.model.Plant;
+import com.florafolio.repository.PlantSummary;
+import com.florafolio.search.PlantSuggester;
+import com.florafolio.service.PlantPage;
+import com.florafolio.service.PlantSearchMode;
 import com.florafolio.service.PlantService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -21,6 +40,9 @@ public class PublicPlantController {
     @Autowired
     private PlantService plantService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     // Converter Plant para PlantDTO
     private PlantDTO convertToDTO(Plant plant) {
         return new PlantDTO(
@@ -44,27 +66,207 @@ public class PublicPlantController {
         return plantDTOs;
     }
     
-    // Endpoint para listar todas as plantas (acessível a todos)
+    // ETag forte de uma planta: muda sempre que a versão é incrementada
+    private String plantETag(Plant plant) {
+        return "\"" + plant.getId() + "-" + plant.getVersion() + "\"";
+    }
+    
+    // ETag forte de uma coleção: resumo dos IDs e versões das plantas, na ordem retornada
+    private String collectionETag(List<Plant> plants, String nextCursor) {
+        List<String> versions = new ArrayList<>();
+        for (Plant plant : plants) {
+            versions.add(plant.getId() + ":" + plant.getVersion());
+        }
+        return digestETag(versions, nextCursor);
+    }
+    
+    // Resumo SHA-256 das versões e das partes extras (cursor, campos selecionados) que mudam a representação
+    private String digestETag(List<String> versions, String... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String version : versions) {
+            digest.update((version + ";").getBytes(StandardCharsets.UTF_8));
+        }
+        for (String part : parts) {
+            if (part != null) {
+                digest.update(("|" + part).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+    
+    // Endpoint para listar as plantas paginadas por cursor (acessível a todos)
     @GetMapping
-    public ResponseEntity<PlantResponseDTO> getAllPlants() {
-        List<Plant> plants = plantService.getAllPlants();
-        List<PlantDTO> plantDTOs = convertToDTOList(plants);
+    public ResponseEntity<?> getAllPlants(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
-        PlantResponseDTO response = new PlantResponseDTO(
+        if (fields != null && !fields.isBlank()) {
+            return getPlantsWithFields(sort, cursor, size, fields, webRequest);
+        }
+        
+        PlantPage<Plant> page;
+        try {
+            page = plantService.getPlantsPage(sort, cursor, size);
+        } catch (IllegalArgumentException e) {
+            PlantPageResponseDTO response = new PlantPageResponseDTO(
+                "error",
+                e.getMessage(),
+                null,
+                null
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        // Responde 304 sem montar nem serializar o corpo quando o cliente já tem esta página
+        if (webRequest.checkNotModified(collectionETag(page.getPlants(), page.getNextCursor()))) {
+            return null;
+        }
+        
+        PlantPageResponseDTO response = new PlantPageResponseDTO(
             "success",
             "Plantas encontradas com sucesso",
-            plantDTOs
+            convertToDTOList(page.getPlants()),
+            page.getNextCursor()
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    // Listagem paginada com apenas os campos solicitados; sem colunas de texto longo, lê só a projeção resumida
+    private ResponseEntity<PlantFieldsResponseDTO> getPlantsWithFields(
+            String sort, String cursor, Integer size, String fields, WebRequest webRequest) {
+        
+        List<String> selected;
+        List<String> versions = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        String nextCursor;
+        try {
+            selected = PlantFieldSelector.parse(fields);
+            if (PlantFieldSelector.isSummary(selected)) {
+                PlantPage<PlantSummary> page = plantService.getPlantSummariesPage(sort, cursor, size);
+                for (PlantSummary summary : page.getPlants()) {
+                    versions.add(summary.getId() + ":" + summary.getVersion());
+                    rows.add(PlantFieldSelector.select(summary, selected));
+                }
+                nextCursor = page.getNextCursor();
+            } else {
+                // Com description, origin ou careInstructions a entidade inteira é lida; só a resposta é recortada
+                PlantPage<Plant> page = plantService.getPlantsPage(sort, cursor, size);
+                for (Plant plant : page.getPlants()) {
+                    versions.add(plant.getId() + ":" + plant.getVersion());
+                    rows.add(PlantFieldSelector.select(plant, selected));
+                }
+                nextCursor = page.getNextCursor();
+            }
+        } catch (IllegalArgumentException e) {
+            PlantFieldsResponseDTO response = new PlantFieldsResponseDTO(
+                "error",
+                e.getMessage(),
+                null,
+                null
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        if (webRequest.checkNotModified(digestETag(versions, nextCursor, String.join(",", selected)))) {
+            return null;
+        }
+        
+        PlantFieldsResponseDTO response = new PlantFieldsResponseDTO(
+            "success",
+            "Plantas encontradas com sucesso",
+            rows,
+            nextCursor
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    // Busca com apenas os campos solicitados, usada pelos endpoints de busca quando "fields" é informado
+    private ResponseEntity<PlantFieldsResponseDTO> searchWithFields(
+            PlantSearchMode mode, String term, String fields, WebRequest webRequest) {
+        
+        List<String> selected;
+        try {
+            selected = PlantFieldSelector.parse(fields);
+        } catch (IllegalArgumentException e) {
+            PlantFieldsResponseDTO response = new PlantFieldsResponseDTO(
+                "error",
+                e.getMessage(),
+                null,
+                null
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        List<String> versions = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        if (PlantFieldSelector.isSummary(selected)) {
+            for (PlantSummary summary : plantService.searchPlantSummaries(mode, term)) {
+                versions.add(summary.getId() + ":" + summary.getVersion());
+                rows.add(PlantFieldSelector.select(summary, selected));
+            }
+        } else {
+            // Com description, origin ou careInstructions a busca completa (com cache) é usada e a resposta recortada
+            for (Plant plant : plantService.searchPlants(mode, term)) {
+                versions.add(plant.getId() + ":" + plant.getVersion());
+                rows.add(PlantFieldSelector.select(plant, selected));
+            }
+        }
+        
+        if (webRequest.checkNotModified(digestETag(versions, String.join(",", selected)))) {
+            return null;
+        }
+        
+        PlantFieldsResponseDTO response = new PlantFieldsResponseDTO(
+            "success",
+            rows.isEmpty() ? "Nenhuma planta encontrada" : "Plantas encontradas com sucesso",
+            rows,
+            null
         );
         
         return ResponseEntity.ok(response);
     }
     
+    // Endpoint para exportar todo o catálogo em NDJSON, uma planta por linha (acessível a todos)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPlants() {
+        StreamingResponseBody body = outputStream -> {
+            plantService.streamAllPlants(plant -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(convertToDTO(plant)));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+    
     // Endpoint para buscar planta por ID (acessível a todos)
     @GetMapping("/{id}")
-    public ResponseEntity<PlantResponseDTO> getPlantById(@PathVariable UUID id) {
+    public ResponseEntity<PlantResponseDTO> getPlantById(@PathVariable UUID id, WebRequest webRequest) {
         Plant plant = plantService.getPlantById(id);
         
         if (plant != null) {
+            long lastModified = plant.getUpdatedAt() != null ? plant.getUpdatedAt().toEpochMilli() : -1;
+            if (webRequest.checkNotModified(plantETag(plant), lastModified)) {
+                return null;
+            }
+            
             List<PlantDTO> plantDTOs = new ArrayList<>();
             plantDTOs.add(convertToDTO(plant));
             
@@ -88,8 +290,17 @@ public class PublicPlantController {
     
     // Endpoint para buscar plantas por nome popular (acessível a todos)
     @GetMapping("/search/popular")
-    public ResponseEntity<PlantResponseDTO> searchByPopularName(@RequestParam String name) {
+    public ResponseEntity<?> searchByPopularName(
+            @RequestParam String name,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        if (fields != null && !fields.isBlank()) {
+            return searchWithFields(PlantSearchMode.POPULAR, name, fields, webRequest);
+        }
         List<Plant> plants = plantService.getPlantsByPopularName(name);
+        if (webRequest.checkNotModified(collectionETag(plants, null))) {
+            return null;
+        }
         List<PlantDTO> plantDTOs = convertToDTOList(plants);
         
         PlantResponseDTO response = new PlantResponseDTO(
@@ -103,8 +314,17 @@ public class PublicPlantController {
     
     // Endpoint para buscar plantas por nome científico (acessível a todos)
     @GetMapping("/search/scientific")
-    public ResponseEntity<PlantResponseDTO> searchByScientificName(@RequestParam String name) {
+    public ResponseEntity<?> searchByScientificName(
+            @RequestParam String name,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        if (fields != null && !fields.isBlank()) {
+            return searchWithFields(PlantSearchMode.SCIENTIFIC, name, fields, webRequest);
+        }
         List<Plant> plants = plantService.getPlantsByScientificName(name);
+        if (webRequest.checkNotModified(collectionETag(plants, null))) {
+            return null;
+        }
         List<PlantDTO> plantDTOs = convertToDTOList(plants);
         
         PlantResponseDTO response = new PlantResponseDTO(
@@ -118,8 +338,17 @@ public class PublicPlantController {
     
     // Endpoint para buscar plantas por termo (nome popular ou científico) (acessível a todos)
     @GetMapping("/search")
-    public ResponseEntity<PlantResponseDTO> searchPlants(@RequestParam String term) {
+    public ResponseEntity<?> searchPlants(
+            @RequestParam String term,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        if (fields != null && !fields.isBlank()) {
+            return searchWithFields(PlantSearchMode.NAME, term, fields, webRequest);
+        }
         List<Plant> plants = plantService.searchPlants(term);
+        if (webRequest.checkNotModified(collectionETag(plants, null))) {
+            return null;
+        }
         List<PlantDTO> plantDTOs = convertToDTOList(plants);
         
         PlantResponseDTO response = new PlantResponseDTO(
@@ -130,4 +359,24 @@ public class PublicPlantController {
         
         return ResponseEntity.ok(response);
     }
+    
+    // Endpoint de autocompletar: retorna apenas (id, nome) das plantas cujo nome começa pelo prefixo (acessível a todos)
+    @GetMapping("/suggest")
+    public ResponseEntity<PlantSuggestResponseDTO> suggestPlants(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        
+        List<PlantSuggestionDTO> suggestionDTOs = new ArrayList<>();
+        for (PlantSuggester.Suggestion suggestion : plantService.suggestPlants(prefix, limit)) {
+            suggestionDTOs.add(new PlantSuggestionDTO(suggestion.getId(), suggestion.getName()));
+        }
+        
+        PlantSuggestResponseDTO response = new PlantSuggestResponseDTO(
+            "success",
+            suggestionDTOs.isEmpty() ? "Nenhuma planta encontrada" : "Sugestões encontradas com sucesso",
+            suggestionDTOs
+        );
+        
+        return ResponseEntity.ok(response);
+    }
 }
\ No newline at end of file
@@ -8,8 +8,13 @@ import com.florafolio.dto.auth.ResponseDTO;
 import com.florafolio.dto.auth.UserDTO;
 import com.florafolio.dto.auth.UsernameUpdateDTO;
 import com.florafolio.model.User;
+import com.florafolio.ratelimit.LoginRateLimiter;
+import com.florafolio.repository.UserProfile;
 import com.florafolio.service.UserService;
+import com.florafolio.security.JwtRequestFilter;
 import com.florafolio.security.JwtUtil;
+import com.florafolio.security.PasswordHashingService;
+import com.florafolio.security.VerifiedToken;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -22,8 +27,6 @@ import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 public class UserController {
@@ -34,13 +37,9 @@ public class UserController {
     @Autowired
     private JwtUtil jwtUtil;
     
-    // Rate limiting implementation - in production, use a distributed cache like Redis
-    private final Map<String, AtomicInteger> loginAttempts = new ConcurrentHashMap<>();
-    private final Map<String, Long> blockedIps = new ConcurrentHashMap<>();
-    
-    // Rate limiting constants
-    private static final int MAX_ATTEMPTS = 5;
-    private static final long BLOCK_DURATION_MS = 15 * 60 * 1000; // 15 minutes
+    // Limite de falhas de login por IP e por usuário, compartilhado entre as instâncias via Redis
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
     
 
     @PostMapping("/login")
@@ -50,26 +49,28 @@ public class UserController {
         
         // Get client IP for rate limiting
         String clientIp = getClientIp(request);
+        String username = loginRequest.getUsername();
+        String password = loginRequest.getPassword();
         
-        // Check if IP is blocked
-        if (isIpBlocked(clientIp)) {
+        // Check if IP or username is blocked
+        long retryAfterMs = loginRateLimiter.check(clientIp, username);
+        if (retryAfterMs > 0) {
             LoginResponseDTO response = new LoginResponseDTO(
                 "error", 
                 "Too many failed login attempts. Please try again later.", 
                 null, 
                 null
             );
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf((retryAfterMs + 999) / 1000))
+                    .body(response);
         }
-        
-        String username = loginRequest.getUsername();
-        String password = loginRequest.getPassword();
 
         User user = userService.authenticate(username, password);
         
         if (user != null) {
             // Reset login attempts on successful login
-            resetLoginAttempts(clientIp);
+            loginRateLimiter.reset(username);
             
             String token = jwtUtil.generateToken(user);
             LoginResponseDTO response = new LoginResponseDTO(
@@ -81,7 +82,7 @@ public class UserController {
             return ResponseEntity.ok(response);
         } else {
             // Increment failed login attempts
-            incrementLoginAttempts(clientIp);
+            loginRateLimiter.recordFailure(clientIp, username);
             
             LoginResponseDTO response = new LoginResponseDTO(
                 "error", 
@@ -129,18 +130,11 @@ public class UserController {
 
  
     @PostMapping("/users/logout")
-    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = true) String authHeader) {
+    public ResponseEntity<?> logout(
+            @RequestAttribute(name = JwtRequestFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken verifiedToken) {
         
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            if (token.isEmpty()) {
-                ResponseDTO response = new ResponseDTO(
-                    "error", 
-                    "Token de autenticação inválido"
-                );
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-            }
-            jwtUtil.revokeToken(token);
+        if (verifiedToken != null) {
+            jwtUtil.revokeToken(verifiedToken);
             ResponseDTO response = new ResponseDTO(
                 "success", 
                 "Logout bem-sucedido"
@@ -157,11 +151,20 @@ public class UserController {
     
 
     @DeleteMapping("/users/delete")
-    public ResponseEntity<ResponseDTO> deleteUserById(@RequestHeader(value = "Authorization", required = true) String authHeader) {
-        String token = authHeader.substring(7);
-        UUID userId = jwtUtil.extractUserId(token);
+    public ResponseEntity<ResponseDTO> deleteUserById(
+            @RequestAttribute(name = JwtRequestFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken verifiedToken) {
+        if (verifiedToken == null) {
+            ResponseDTO response = new ResponseDTO(
+                "error", 
+                "Token de autenticação necessário"
+            );
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+        UUID userId = verifiedToken.getUserId();
         User deleted = userService.deleteUserById(userId);
         if (deleted != null) {
+            // Encerra todas as sessões do usuário excluído
+            jwtUtil.revokeAllUserTokens(userId);
             ResponseDTO response = new ResponseDTO(
                 "success", 
                 "Usuário excluído com sucesso"
@@ -177,9 +180,10 @@ public class UserController {
     }
 
     @GetMapping("/users/profile")
-    public ResponseEntity<?> getCurrentUserProfile(@RequestHeader(value = "Authorization", required = true) String authHeader) {
+    public ResponseEntity<?> getCurrentUserProfile(
+            @RequestAttribute(name = JwtRequestFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken verifiedToken) {
         
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (verifiedToken == null) {
             ResponseDTO response = new ResponseDTO(
                 "error", 
                 "Token de autenticação necessário"
@@ -187,14 +191,12 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         }
         
-        String token = authHeader.substring(7);
-        
         try {
-            // Extract user ID from token
-            UUID userId = jwtUtil.extractUserId(token);
+            // User ID from the already verified token
+            UUID userId = verifiedToken.getUserId();
             
-            // Get user by ID
-            User user = userService.getUserById(userId);
+            // Get profile by ID (projection, no entity loaded)
+            UserProfile user = userService.getProfileById(userId);
             
             if (user != null) {
                 // Create DTO with full profile access since it's the user's own profile
@@ -226,21 +228,15 @@ public class UserController {
     @GetMapping("/users/{username}")
     public ResponseEntity<?> getUserByUsername(
             @PathVariable String username,
-            @RequestHeader(value = "Authorization", required = true) String authHeader) {
+            @RequestAttribute(name = JwtRequestFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken verifiedToken) {
         
-        User user = userService.getUserByUsername(username);
+        UserProfile user = userService.getProfileByUsername(username);
         if (user != null) {
             // Check if the requester is the same user (to determine if email should be visible)
             boolean isOwnProfile = false;
             
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                try {
-                    UUID tokenUserId = jwtUtil.extractUserId(token);
-                    isOwnProfile = user.getId().equals(tokenUserId);
-                } catch (Exception e) {
-                    // Token parsing failed, assume not own profile
-                }
+            if (verifiedToken != null) {
+                isOwnProfile = user.getId().equals(verifiedToken.getUserId());
             }
 
             UserDTO userDTO;
@@ -272,7 +268,7 @@ public class UserController {
     public ResponseEntity<?> updateUsernameById(
             @PathVariable UUID id,
             @RequestBody UsernameUpdateDTO usernameUpdateDTO,
-            @RequestHeader(value = "Authorization", required = true) String authHeader) {
+            @RequestAttribute(name = JwtRequestFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken verifiedToken) {
         
         String currentUsername = usernameUpdateDTO.getCurrentUsername();
         String newUsername = usernameUpdateDTO.getNewUsername();
@@ -290,9 +286,8 @@ public class UserController {
         boolean updated = userService.updateUsernameById(id, newUsername);
         if (updated) {
             // If there's a token, revoke it since username has changed
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                jwtUtil.revokeToken(token);
+            if (verifiedToken != null) {
+                jwtUtil.revokeToken(verifiedToken);
                 
                 // Generate a new token with updated username
                 User user = userService.getUserById(id);
@@ -325,7 +320,7 @@ public class UserController {
     public ResponseEntity<?> updatePasswordById(
             @PathVariable UUID id,
             @RequestBody PasswordUpdateDTO passwordUpdateDTO,
-            @RequestHeader(value = "Authorization", required = true) String authHeader) {
+            @RequestAttribute(name = JwtRequestFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken verifiedToken) {
         
         // Extract request data
         String currentPassword = passwordUpdateDTO.getCurrentPassword();
@@ -351,7 +346,7 @@ public class UserController {
         }
         
         // Verify current password
-        if (!userService.getPasswordEncoder().matches(currentPassword, user.getPassword())) {
+        if (!userService.passwordMatches(currentPassword, user.getPassword())) {
             ResponseDTO response = new ResponseDTO(
                 "error", 
                 "Senha atual incorreta"
@@ -363,9 +358,8 @@ public class UserController {
         boolean updated = userService.updatePasswordById(id, newPassword);
         if (updated) {
             // If there's a token, revoke it since password has changed
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                jwtUtil.revokeToken(token);
+            if (verifiedToken != null) {
+                jwtUtil.revokeToken(verifiedToken);
                 
                 // Generate a new token
                 String newToken = jwtUtil.generateToken(user);
@@ -392,43 +386,23 @@ public class UserController {
         }
     }
     
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
-    
-    private boolean isIpBlocked(String ip) {
-        Long blockedUntil = blockedIps.get(ip);
-        if (blockedUntil != null) {
-            if (System.currentTimeMillis() < blockedUntil) {
-                return true;
-            } else {
-                // Block duration expired, remove from blocked IPs
-                blockedIps.remove(ip);
-                loginAttempts.remove(ip);
-                return false;
-            }
-        }
-        return false;
+    // Pool de hash de senhas saturado: o cliente deve tentar de novo em instantes
+    @ExceptionHandler(PasswordHashingService.PasswordHashingOverloadedException.class)
+    public ResponseEntity<ResponseDTO> handlePasswordHashingOverloaded(
+            PasswordHashingService.PasswordHashingOverloadedException e) {
+        ResponseDTO response = new ResponseDTO(
+            "error", 
+            "Servidor ocupado, tente novamente em instantes"
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(response);
     }
-    
-
-    private void incrementLoginAttempts(String ip) {
-        AtomicInteger attempts = loginAttempts.computeIfAbsent(ip, k -> new AtomicInteger(0));
-        int currentAttempts = attempts.incrementAndGet();
-        
-        if (currentAttempts >= MAX_ATTEMPTS) {
-            // Block the IP
-            blockedIps.put(ip, System.currentTimeMillis() + BLOCK_DURATION_MS);
-        }
-    }
-    
 
-    private void resetLoginAttempts(String ip) {
-        loginAttempts.remove(ip);
-        blockedIps.remove(ip);
+    // Endereço da conexão. O X-Forwarded-For enviado pelo cliente não é lido aqui: com um valor novo a cada
+    // tentativa ele escaparia do limite por IP. Atrás de um proxy confiável, server.forward-headers-strategy
+    // faz o Tomcat resolver o IP real a partir dos cabeçalhos do proxy.
+    private String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.florafolio.dto.auth;
+
+import java.util.List;
+
+public class UserPageResponseDTO {
+    private String status;
+    private String message;
+    private List<UserSummaryDTO> users;
+    private String nextCursor;
+    
+    // Constructors
+    public UserPageResponseDTO() {}
+    
+    public UserPageResponseDTO(String status, String message, List<UserSummaryDTO> users, String nextCursor) {
+        this.status = status;
+        this.message = message;
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public List<UserSummaryDTO> getUsers() {
+        return users;
+    }
+    
+    public void setUsers(List<UserSummaryDTO> users) {
+        this.users = users;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.florafolio.dto.auth;
+
+import java.util.UUID;
+
+public class UserSummaryDTO {
+    private UUID id;
+    private String username;
+    private String email;
+    private String role;
+    
+    // Constructors
+    public UserSummaryDTO() {}
+    
+    public UserSummaryDTO(UUID id, String username, String email, String role) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+    }
+    
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
\ No newline at end of file
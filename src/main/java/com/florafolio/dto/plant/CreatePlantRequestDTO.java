@@ -12,10 +12,19 @@ public class CreatePlantRequestDTO {
     @Size(min = 2, max = 100, message = "O nome científico deve ter entre 2 e 100 caracteres")
     private String scientificName;
     
+    @Size(max = 10000, message = "A descrição deve ter no máximo 10000 caracteres")
     private String description;
+    
+    @Size(max = 255, message = "A família deve ter no máximo 255 caracteres")
     private String family;
+    
+    @Size(max = 255, message = "A origem deve ter no máximo 255 caracteres")
     private String origin;
+    
+    @Size(max = 255, message = "As instruções de cuidado devem ter no máximo 255 caracteres")
     private String careInstructions;
+    
+    @Size(max = 255, message = "A URL da imagem deve ter no máximo 255 caracteres")
     private String imageUrl;
     
     // Construtores
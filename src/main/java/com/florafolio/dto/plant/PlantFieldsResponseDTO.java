@@ -0,0 +1,59 @@
+package com.florafolio.dto.plant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+// Resposta com apenas os campos solicitados em "fields"; nextCursor só aparece na listagem com próxima página
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlantFieldsResponseDTO {
+    private String status;
+    private String message;
+    private List<Map<String, Object>> plants;
+    private String nextCursor;
+
+    // Construtores
+    public PlantFieldsResponseDTO() {}
+
+    public PlantFieldsResponseDTO(String status, String message, List<Map<String, Object>> plants,
+                                  String nextCursor) {
+        this.status = status;
+        this.message = message;
+        this.plants = plants;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters e Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<Map<String, Object>> getPlants() {
+        return plants;
+    }
+
+    public void setPlants(List<Map<String, Object>> plants) {
+        this.plants = plants;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.florafolio.dto.plant;
+
+public class PlantImportErrorDTO {
+    private long line;
+    private String message;
+
+    // Construtores
+    public PlantImportErrorDTO() {}
+
+    public PlantImportErrorDTO(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    // Getters e Setters
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
\ No newline at end of file
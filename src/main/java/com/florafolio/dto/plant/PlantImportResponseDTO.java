@@ -0,0 +1,74 @@
+package com.florafolio.dto.plant;
+
+import java.util.List;
+
+public class PlantImportResponseDTO {
+    private String status;
+    private String message;
+    private long imported;
+    private long failed;
+    private List<PlantImportErrorDTO> errors;
+    private boolean errorsTruncated;
+
+    // Construtores
+    public PlantImportResponseDTO() {}
+
+    public PlantImportResponseDTO(String status, String message, long imported, long failed,
+                                  List<PlantImportErrorDTO> errors, boolean errorsTruncated) {
+        this.status = status;
+        this.message = message;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    // Getters e Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<PlantImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<PlantImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+}
\ No newline at end of file
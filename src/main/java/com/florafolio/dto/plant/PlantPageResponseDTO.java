@@ -0,0 +1,53 @@
+package com.florafolio.dto.plant;
+
+import java.util.List;
+
+public class PlantPageResponseDTO {
+    private String status;
+    private String message;
+    private List<PlantDTO> plants;
+    private String nextCursor;
+
+    // Construtores
+    public PlantPageResponseDTO() {}
+
+    public PlantPageResponseDTO(String status, String message, List<PlantDTO> plants, String nextCursor) {
+        this.status = status;
+        this.message = message;
+        this.plants = plants;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters e Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<PlantDTO> getPlants() {
+        return plants;
+    }
+
+    public void setPlants(List<PlantDTO> plants) {
+        this.plants = plants;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
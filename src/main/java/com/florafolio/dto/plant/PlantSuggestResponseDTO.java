@@ -0,0 +1,43 @@
+package com.florafolio.dto.plant;
+
+import java.util.List;
+
+public class PlantSuggestResponseDTO {
+    private String status;
+    private String message;
+    private List<PlantSuggestionDTO> suggestions;
+
+    // Construtores
+    public PlantSuggestResponseDTO() {}
+
+    public PlantSuggestResponseDTO(String status, String message, List<PlantSuggestionDTO> suggestions) {
+        this.status = status;
+        this.message = message;
+        this.suggestions = suggestions;
+    }
+
+    // Getters e Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<PlantSuggestionDTO> getSuggestions() {
+        return suggestions;
+    }
+
+    public void setSuggestions(List<PlantSuggestionDTO> suggestions) {
+        this.suggestions = suggestions;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.florafolio.dto.plant;
+
+import java.util.UUID;
+
+public class PlantSuggestionDTO {
+    private UUID id;
+    private String name;
+
+    // Construtores
+    public PlantSuggestionDTO() {}
+
+    public PlantSuggestionDTO(UUID id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    // Getters e Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
\ No newline at end of file
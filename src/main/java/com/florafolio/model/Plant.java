@@ -4,14 +4,21 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
 import jakarta.persistence.Lob;
+import jakarta.persistence.Version;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "plants")
+@Table(name = "plants", indexes = {
+    // Índices das ordenações da listagem paginada (chave + ID como desempate)
+    @Index(name = "idx_plants_popular_name_id", columnList = "popular_name, id"),
+    @Index(name = "idx_plants_scientific_name_id", columnList = "scientific_name, id")
+})
 public class Plant {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -38,6 +45,14 @@ public class Plant {
     @Column
     private String imageUrl;
     
+    // Incrementada pelo Hibernate a cada atualização; base do ETag da planta
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column
+    private Instant updatedAt;
+    
     // Construtores
     public Plant() {}
     
@@ -117,4 +132,20 @@ public class Plant {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
\ No newline at end of file
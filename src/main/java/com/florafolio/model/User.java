@@ -31,6 +31,10 @@ public class User {
     @Column(nullable = false)
     private Role role = Role.USER;
     
+    // Incrementada para invalidar os tokens já emitidos (ex.: troca de nome de usuário ou de papel)
+    @Column(nullable = false)
+    private long tokenVersion = 0;
+    
     // Enum para os papéis de usuário
     public enum Role {
         USER,
@@ -95,4 +99,12 @@ public class User {
     public void setRole(Role role) {
         this.role = role;
     }
+    
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
 }
\ No newline at end of file
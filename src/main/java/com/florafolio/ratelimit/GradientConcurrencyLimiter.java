@@ -0,0 +1,69 @@
+package com.florafolio.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Limite de concorrência adaptativo (estilo Gradient2): compara a latência recente com a média de longo prazo.
+// Quando a latência sobe, há fila se formando e o limite cai; enquanto ela se mantém, o limite cresce
+// aos poucos (raiz quadrada do limite como folga). Assim a latência das requisições admitidas fica limitada.
+final class GradientConcurrencyLimiter {
+    // Latência recente até 1,5x a de longo prazo não reduz o limite
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_ALPHA = 2.0 / (10 + 1);
+    private static final double LONG_ALPHA = 2.0 / (600 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    // Libera a vaga e ajusta o limite com a latência observada
+    void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            if (longRtt == 0) {
+                shortRtt = rttNanos;
+                longRtt = rttNanos;
+                return;
+            }
+            shortRtt += SHORT_ALPHA * (rttNanos - shortRtt);
+            longRtt += LONG_ALPHA * (shortRtt - longRtt);
+            // Depois de uma sobrecarga a média longa fica alta; ela desce mais rápido para voltar a detectar filas
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            // Usando menos da metade do limite não há sinal suficiente para ajustá-lo
+            if (current < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            estimatedLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
\ No newline at end of file
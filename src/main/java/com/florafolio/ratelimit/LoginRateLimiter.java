@@ -0,0 +1,177 @@
+package com.florafolio.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Limite de tentativas de login com falha, por IP e por nome de usuário, compartilhado entre as instâncias.
+// Cada chave é um GCRA no Redis: guarda apenas o instante teórico da próxima tentativa (TAT) e expira sozinha;
+// "limit" falhas são toleradas em rajada e depois uma nova a cada period/limit.
+// Chaves já bloqueadas ficam em um cache local limitado, que evita a ida ao Redis durante uma enxurrada.
+@Component
+public class LoginRateLimiter {
+
+    private static final String IP_KEY_PREFIX = "ratelimit:login:ip:";
+    private static final String USER_KEY_PREFIX = "ratelimit:login:user:";
+    // Nomes maiores que o permitido no registro não existem e não ganham chave própria
+    private static final int MAX_USERNAME_LENGTH = 20;
+    private static final int MAX_IP_LENGTH = 45;
+
+    // Relógio do próprio Redis, igual para todas as instâncias
+    private static final String NOW =
+        "if redis.replicate_commands then redis.replicate_commands() end " +
+        "local time = redis.call('TIME') " +
+        "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) ";
+
+    // KEYS[i] = bucket; ARGV[2i-1] = intervalo (ms), ARGV[2i] = tolerância de rajada (ms).
+    // Retorna a espera em ms até a próxima tentativa ser aceita (0 = liberado), sem consumir.
+    private static final RedisScript<Long> CHECK_SCRIPT = new DefaultRedisScript<>(
+        NOW +
+        "local wait = 0 " +
+        "for i, key in ipairs(KEYS) do " +
+        "  local tat = math.max(tonumber(redis.call('GET', key) or '0'), now) " +
+        "  wait = math.max(wait, tat - now - tonumber(ARGV[2 * i])) " +
+        "end " +
+        "return wait",
+        Long.class);
+
+    // Registra uma falha em cada bucket e retorna, na ordem das chaves, a espera em ms de cada uma
+    // (um IP bloqueado não bloqueia o nome de usuário no cache local, e vice-versa)
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> FAILURE_SCRIPT = new DefaultRedisScript<>(
+        NOW +
+        "local waits = {} " +
+        "for i, key in ipairs(KEYS) do " +
+        "  local interval = tonumber(ARGV[2 * i - 1]) " +
+        "  local tat = math.max(tonumber(redis.call('GET', key) or '0'), now) + interval " +
+        "  redis.call('SET', key, tat, 'PX', tat - now) " +
+        "  waits[i] = tat - now - tonumber(ARGV[2 * i]) " +
+        "end " +
+        "return waits",
+        List.class);
+
+    @Value("${login.rate-limit.ip.limit:20}")
+    private int ipLimit;
+
+    @Value("${login.rate-limit.ip.period:900}")
+    private long ipPeriodSeconds;
+
+    @Value("${login.rate-limit.user.limit:5}")
+    private int userLimit;
+
+    @Value("${login.rate-limit.user.period:900}")
+    private long userPeriodSeconds;
+
+    @Value("${login.rate-limit.local.max-size:100000}")
+    private long localMaxSize;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    // Chave -> instante (ms) até o qual está bloqueada
+    private Cache<String, Long> blockedUntil;
+
+    @PostConstruct
+    public void init() {
+        blockedUntil = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(Math.max(ipPeriodSeconds, userPeriodSeconds)))
+            .build();
+    }
+
+    // Espera em ms antes de uma nova tentativa de login (0 = liberado); uma ida ao Redis
+    public long check(String ip, String username) {
+        List<String> keys = keys(ip, username);
+        long now = System.currentTimeMillis();
+        for (String key : keys) {
+            Long until = blockedUntil.getIfPresent(key);
+            if (until != null && until > now) {
+                return until - now;
+            }
+        }
+        try {
+            Long wait = redisTemplate.execute(CHECK_SCRIPT, keys, args(keys));
+            return wait == null ? 0L : Math.max(0L, wait);
+        } catch (RuntimeException e) {
+            // Sem o Redis o login continua disponível; o hash de senhas segue limitado pelo próprio pool
+            System.err.println("Erro ao consultar o limite de login: " + e.getMessage());
+            return 0L;
+        }
+    }
+
+    // Conta uma tentativa com falha para o IP e para o nome de usuário
+    public void recordFailure(String ip, String username) {
+        List<String> keys = keys(ip, username);
+        try {
+            List<?> waits = redisTemplate.execute(FAILURE_SCRIPT, keys, args(keys));
+            if (waits == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < keys.size() && i < waits.size(); i++) {
+                long wait = ((Number) waits.get(i)).longValue();
+                if (wait > 0) {
+                    blockedUntil.put(keys.get(i), now + wait);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao registrar falha de login: " + e.getMessage());
+        }
+    }
+
+    // Login bem-sucedido zera as falhas do usuário; as do IP continuam valendo e se esgotam com o tempo
+    public void reset(String username) {
+        String key = userKey(username);
+        if (key == null) {
+            return;
+        }
+        blockedUntil.invalidate(key);
+        try {
+            redisTemplate.delete(key);
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao zerar o limite de login: " + e.getMessage());
+        }
+    }
+
+    private List<String> keys(String ip, String username) {
+        List<String> keys = new ArrayList<>(2);
+        String ipKey = ip == null ? "unknown" : ip.length() > MAX_IP_LENGTH ? ip.substring(0, MAX_IP_LENGTH) : ip;
+        keys.add(IP_KEY_PREFIX + ipKey);
+        String userKey = userKey(username);
+        if (userKey != null) {
+            keys.add(userKey);
+        }
+        return keys;
+    }
+
+    private String userKey(String username) {
+        if (username == null || username.isBlank() || username.length() > MAX_USERNAME_LENGTH) {
+            return null;
+        }
+        return USER_KEY_PREFIX + username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Intervalo e tolerância (ms) de cada chave, na mesma ordem das chaves
+    private Object[] args(List<String> keys) {
+        Object[] args = new Object[keys.size() * 2];
+        for (int i = 0; i < keys.size(); i++) {
+            boolean ipKey = keys.get(i).startsWith(IP_KEY_PREFIX);
+            long interval = (ipKey ? ipPeriodSeconds : userPeriodSeconds) * 1000 / (ipKey ? ipLimit : userLimit);
+            long tolerance = interval * ((ipKey ? ipLimit : userLimit) - 1);
+            args[2 * i] = String.valueOf(interval);
+            args[2 * i + 1] = String.valueOf(tolerance);
+        }
+        return args;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.florafolio.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.florafolio.dto.auth.ResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Controle de admissão na entrada da cadeia de segurança, antes de qualquer acesso ao banco ou BCrypt:
+// token bucket por cliente (endereço da conexão) e rota, com o bucket global da rota como teto (429 quando
+// uma das taxas é excedida), e limite de concorrência adaptativo pela latência observada (503 quando a
+// instância está saturada). Contadores locais a cada instância.
+// Um único cliente esgota só o próprio bucket, sem derrubar a rota para os demais.
+@Component
+public class RequestAdmissionFilter extends OncePerRequestFilter {
+
+    // Rotas com limite de taxa próprio; as longas (streaming) não entram no limite de concorrência
+    enum Route {
+        LOGIN("POST", "/login", false),
+        REGISTER("POST", "/register", false),
+        SEARCH("GET", "/plants/search", false),
+        EXPORT("GET", "/plants/export", true),
+        USER_EXPORT("GET", "/admin/users/export", true),
+        IMPORT("POST", "/admin/plants/import", true),
+        DEFAULT(null, null, false);
+
+        private final String method;
+        private final String pathPrefix;
+        private final boolean longRunning;
+
+        Route(String method, String pathPrefix, boolean longRunning) {
+            this.method = method;
+            this.pathPrefix = pathPrefix;
+            this.longRunning = longRunning;
+        }
+
+        static Route of(HttpServletRequest request) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            for (Route route : values()) {
+                if (route.pathPrefix != null && route.method.equals(request.getMethod())
+                        && path.startsWith(route.pathPrefix)) {
+                    return route;
+                }
+            }
+            return DEFAULT;
+        }
+    }
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    // Requisições por segundo em cada instância (0 = sem limite); a rajada tolerada é de um segundo
+    @Value("${admission.rate.login:50}")
+    private double loginRate;
+
+    @Value("${admission.rate.register:10}")
+    private double registerRate;
+
+    @Value("${admission.rate.search:100}")
+    private double searchRate;
+
+    @Value("${admission.rate.export:1}")
+    private double exportRate;
+
+    @Value("${admission.rate.import:0}")
+    private double importRate;
+
+    @Value("${admission.rate.default:0}")
+    private double defaultRate;
+
+    // Requisições por segundo de cada cliente em cada instância (0 = sem limite por cliente)
+    @Value("${admission.client-rate.login:2}")
+    private double clientLoginRate;
+
+    @Value("${admission.client-rate.register:0.2}")
+    private double clientRegisterRate;
+
+    @Value("${admission.client-rate.search:10}")
+    private double clientSearchRate;
+
+    @Value("${admission.client-rate.export:0.1}")
+    private double clientExportRate;
+
+    // Clientes acompanhados ao mesmo tempo; os inativos há um minuto saem (seu bucket já estaria cheio)
+    @Value("${admission.client-rate.max-clients:100000}")
+    private long maxClients;
+
+    @Value("${admission.concurrency.enabled:true}")
+    private boolean concurrencyEnabled;
+
+    @Value("${admission.concurrency.initial-limit:50}")
+    private int initialLimit;
+
+    @Value("${admission.concurrency.min-limit:10}")
+    private int minLimit;
+
+    @Value("${admission.concurrency.max-limit:500}")
+    private int maxLimit;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Route, TokenBucket> buckets = new EnumMap<>(Route.class);
+    private final Map<Route, Double> clientRates = new EnumMap<>(Route.class);
+    private Cache<String, TokenBucket> clientBuckets;
+    private GradientConcurrencyLimiter concurrencyLimiter;
+
+    @PostConstruct
+    public void init() {
+        addBucket(Route.LOGIN, loginRate);
+        addBucket(Route.REGISTER, registerRate);
+        addBucket(Route.SEARCH, searchRate);
+        addBucket(Route.EXPORT, exportRate);
+        addBucket(Route.USER_EXPORT, exportRate);
+        addBucket(Route.IMPORT, importRate);
+        addBucket(Route.DEFAULT, defaultRate);
+        addClientRate(Route.LOGIN, clientLoginRate);
+        addClientRate(Route.REGISTER, clientRegisterRate);
+        addClientRate(Route.SEARCH, clientSearchRate);
+        addClientRate(Route.EXPORT, clientExportRate);
+        addClientRate(Route.USER_EXPORT, clientExportRate);
+        clientBuckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofMinutes(1))
+            .build();
+        if (concurrencyEnabled) {
+            concurrencyLimiter = new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        }
+    }
+
+    private void addBucket(Route route, double rate) {
+        if (rate > 0) {
+            buckets.put(route, new TokenBucket(rate, Math.max(1, rate)));
+        }
+    }
+
+    private void addClientRate(Route route, double rate) {
+        if (rate > 0) {
+            clientRates.put(route, rate);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Route route = Route.of(request);
+        // Primeiro o bucket do cliente: quem excede a própria taxa não consome fichas do teto global da rota
+        Double clientRate = clientRates.get(route);
+        if (clientRate != null) {
+            TokenBucket clientBucket = clientBuckets.get(route.name() + ":" + request.getRemoteAddr(),
+                    key -> new TokenBucket(clientRate, Math.max(1, clientRate)));
+            if (rejectIfEmpty(clientBucket, response)) {
+                return;
+            }
+        }
+        TokenBucket bucket = buckets.get(route);
+        if (bucket != null && rejectIfEmpty(bucket, response)) {
+            return;
+        }
+
+        if (concurrencyLimiter == null || route.longRunning) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "Servidor sobrecarregado, tente novamente em instantes", 1);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private boolean rejectIfEmpty(TokenBucket bucket, HttpServletResponse response) throws IOException {
+        long waitNanos = bucket.tryAcquire();
+        if (waitNanos <= 0) {
+            return false;
+        }
+        reject(response, HttpStatus.TOO_MANY_REQUESTS.value(), "Muitas requisições, tente novamente em instantes",
+                (waitNanos + 999_999_999L) / 1_000_000_000L);
+        return true;
+    }
+
+    private void reject(HttpServletResponse response, int status, String message, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ResponseDTO("error", message));
+    }
+}
\ No newline at end of file
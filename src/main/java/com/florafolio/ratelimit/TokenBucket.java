@@ -0,0 +1,36 @@
+package com.florafolio.ratelimit;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Token bucket local: "permitsPerSecond" fichas por segundo, acumulando até "burst"
+final class TokenBucket {
+    private final double permitsPerNano;
+    private final double burst;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double permitsPerSecond, double burst) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    // Consome uma ficha; retorna 0 se liberado ou a espera em nanossegundos até a próxima ficha
+    long tryAcquire() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0L;
+            }
+            return (long) Math.ceil((1 - tokens) / permitsPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
\ No newline at end of file
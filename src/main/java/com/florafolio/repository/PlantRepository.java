@@ -1,21 +1,116 @@
 package com.florafolio.repository;
 
 import com.florafolio.model.Plant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PlantRepository extends JpaRepository<Plant, UUID> {
-    // Busca plantas pelo nome popular (case insensitive, contendo o termo)
-    List<Plant> findByPopularNameContainingIgnoreCase(String popularName);
-    
-    // Busca plantas pelo nome científico (case insensitive, contendo o termo)
-    List<Plant> findByScientificNameContainingIgnoreCase(String scientificName);
-    
-    // Busca plantas pelo nome popular ou científico
-    List<Plant> findByPopularNameContainingIgnoreCaseOrScientificNameContainingIgnoreCase(
-        String popularName, String scientificName);
+    // Colunas da projeção PlantSummary (JPQL e SQL nativo)
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.popularName AS popularName, p.scientificName AS scientificName, " +
+                            "p.family AS family, p.imageUrl AS imageUrl, p.version AS version FROM Plant p ";
+    String SUMMARY_COLUMNS = "SELECT p.id AS \"id\", p.popular_name AS \"popularName\", " +
+                             "p.scientific_name AS \"scientificName\", p.family AS \"family\", " +
+                             "p.image_url AS \"imageUrl\", p.version AS \"version\" FROM plants p ";
+
+    // As buscas por substring usam os índices de trigramas (termos com pelo menos 3 caracteres) e devolvem só as
+    // "max" mais relevantes: o Postgres mantém apenas o top-N na ordenação, sem montar a lista inteira
+
+    // Busca plantas pelo nome popular (contendo o termo, via índice de trigramas), ordenadas por relevância
+    @Query(value = "SELECT * FROM plants p WHERE p.popular_name ILIKE :pattern " +
+                   "ORDER BY similarity(p.popular_name, :term) DESC, p.popular_name ASC LIMIT :max",
+           nativeQuery = true)
+    List<Plant> searchByPopularName(@Param("pattern") String pattern, @Param("term") String term,
+                                    @Param("max") int max);
+
+    // Busca plantas pelo nome científico (contendo o termo, via índice de trigramas), ordenadas por relevância
+    @Query(value = "SELECT * FROM plants p WHERE p.scientific_name ILIKE :pattern " +
+                   "ORDER BY similarity(p.scientific_name, :term) DESC, p.scientific_name ASC LIMIT :max",
+           nativeQuery = true)
+    List<Plant> searchByScientificName(@Param("pattern") String pattern, @Param("term") String term,
+                                       @Param("max") int max);
+
+    // Busca plantas pelo nome popular ou científico, ordenadas pela melhor similaridade entre os dois
+    @Query(value = "SELECT * FROM plants p WHERE p.popular_name ILIKE :pattern OR p.scientific_name ILIKE :pattern " +
+                   "ORDER BY GREATEST(similarity(p.popular_name, :term), similarity(p.scientific_name, :term)) DESC, " +
+                   "p.popular_name ASC LIMIT :max",
+           nativeQuery = true)
+    List<Plant> searchByName(@Param("pattern") String pattern, @Param("term") String term, @Param("max") int max);
+
+    // Página seguinte (keyset) ordenada pelo ID
+    List<Plant> findByIdGreaterThanOrderByIdAsc(UUID id, Pageable pageable);
+
+    // Página seguinte (keyset) ordenada pelo nome popular, com o ID como desempate. A comparação de linha
+    // (popular_name, id) > (...) vira o início de uma única varredura em idx_plants_popular_name_id,
+    // com custo constante em qualquer profundidade da paginação
+    @Query(value = "SELECT * FROM plants p WHERE (p.popular_name, p.id) > (:popularName, :id) " +
+                   "ORDER BY p.popular_name ASC, p.id ASC",
+           nativeQuery = true)
+    List<Plant> findPageByPopularName(@Param("popularName") String popularName, @Param("id") UUID id,
+                                      Pageable pageable);
+
+    // Página seguinte (keyset) ordenada pelo nome científico, com o ID como desempate (idx_plants_scientific_name_id)
+    @Query(value = "SELECT * FROM plants p WHERE (p.scientific_name, p.id) > (:scientificName, :id) " +
+                   "ORDER BY p.scientific_name ASC, p.id ASC",
+           nativeQuery = true)
+    List<Plant> findPageByScientificName(@Param("scientificName") String scientificName, @Param("id") UUID id,
+                                         Pageable pageable);
+
+    // Versões resumidas (PlantSummary) das buscas e da listagem, lendo apenas as colunas leves
+    @Query(value = SUMMARY_COLUMNS + "WHERE p.popular_name ILIKE :pattern " +
+                   "ORDER BY similarity(p.popular_name, :term) DESC, p.popular_name ASC LIMIT :max",
+           nativeQuery = true)
+    List<PlantSummary> searchSummariesByPopularName(@Param("pattern") String pattern, @Param("term") String term,
+                                                    @Param("max") int max);
+
+    @Query(value = SUMMARY_COLUMNS + "WHERE p.scientific_name ILIKE :pattern " +
+                   "ORDER BY similarity(p.scientific_name, :term) DESC, p.scientific_name ASC LIMIT :max",
+           nativeQuery = true)
+    List<PlantSummary> searchSummariesByScientificName(@Param("pattern") String pattern, @Param("term") String term,
+                                                       @Param("max") int max);
+
+    @Query(value = SUMMARY_COLUMNS + "WHERE p.popular_name ILIKE :pattern OR p.scientific_name ILIKE :pattern " +
+                   "ORDER BY GREATEST(similarity(p.popular_name, :term), similarity(p.scientific_name, :term)) DESC, " +
+                   "p.popular_name ASC LIMIT :max",
+           nativeQuery = true)
+    List<PlantSummary> searchSummariesByName(@Param("pattern") String pattern, @Param("term") String term,
+                                             @Param("max") int max);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PlantSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id > :id ORDER BY p.id ASC")
+    List<PlantSummary> findSummaryPageById(@Param("id") UUID id, Pageable pageable);
+
+    @Query(value = SUMMARY_COLUMNS + "WHERE (p.popular_name, p.id) > (:popularName, :id) " +
+                   "ORDER BY p.popular_name ASC, p.id ASC",
+           nativeQuery = true)
+    List<PlantSummary> findSummaryPageByPopularName(@Param("popularName") String popularName, @Param("id") UUID id,
+                                                    Pageable pageable);
+
+    @Query(value = SUMMARY_COLUMNS + "WHERE (p.scientific_name, p.id) > (:scientificName, :id) " +
+                   "ORDER BY p.scientific_name ASC, p.id ASC",
+           nativeQuery = true)
+    List<PlantSummary> findSummaryPageByScientificName(@Param("scientificName") String scientificName,
+                                                       @Param("id") UUID id, Pageable pageable);
+
+    // Percorre todas as plantas com cursor no servidor (exige transação aberta e o stream fechado ao final)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Plant p ORDER BY p.id ASC")
+    Stream<Plant> streamAll();
 }
\ No newline at end of file
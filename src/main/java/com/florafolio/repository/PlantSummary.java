@@ -0,0 +1,18 @@
+package com.florafolio.repository;
+
+import java.util.UUID;
+
+// Projeção fechada com as colunas leves da planta (sem descrição, origem e cuidados)
+public interface PlantSummary {
+    UUID getId();
+
+    String getPopularName();
+
+    String getScientificName();
+
+    String getFamily();
+
+    String getImageUrl();
+
+    Long getVersion();
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.florafolio.repository;
+
+import java.util.UUID;
+
+// Projeção fechada com os dados públicos do perfil (sem o hash da senha)
+public interface UserProfile {
+    UUID getId();
+
+    String getUsername();
+
+    String getEmail();
+}
\ No newline at end of file
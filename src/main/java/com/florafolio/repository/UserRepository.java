@@ -1,12 +1,93 @@
 package com.florafolio.repository;
 
 import com.florafolio.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+    // Listagem administrativa em ordem binária (COLLATE "C"): o keyset pelo nome, o prefixo (intervalo
+    // [from, to)) e a ordenação viram limites da varredura do mesmo índice, mesmo em planos genéricos;
+    // ver idx_users_username_c e idx_users_role_username_c em schema.sql
+    String SUMMARY_COLUMNS = "SELECT u.id AS \"id\", u.username AS \"username\", u.email AS \"email\", " +
+                             "u.role AS \"role\" FROM users u ";
+    String SUMMARY_FILTER = "WHERE u.username COLLATE \"C\" > :after " +
+                            "AND u.username COLLATE \"C\" >= :from AND u.username COLLATE \"C\" < :to ";
+    String SUMMARY_ORDER = "ORDER BY u.username COLLATE \"C\" ASC";
+
     User findByUsername(String username);
-    boolean existsByUsername(String username);
+
+    // Apenas a versão dos tokens do usuário (null se o usuário não existe)
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Long findTokenVersionById(@Param("id") UUID id);
+
+    // Perfil sem carregar a entidade (nem o hash da senha) no contexto de persistência
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email FROM User u WHERE u.id = :id")
+    UserProfile findProfileById(@Param("id") UUID id);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email FROM User u WHERE u.username = :username")
+    UserProfile findProfileByUsername(@Param("username") String username);
+
+    // Cadastro em um único comando; retorna 0 se o nome de usuário já existe (restrição única em username)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO users (id, username, password, email, role, token_version) " +
+                   "VALUES (:id, :username, :password, :email, :role, 0) " +
+                   "ON CONFLICT (username) DO NOTHING",
+           nativeQuery = true)
+    int insertIfUsernameAvailable(@Param("id") UUID id, @Param("username") String username,
+                                  @Param("password") String password, @Param("email") String email,
+                                  @Param("role") String role);
+
+    // Troca o nome e invalida os tokens emitidos com o nome antigo; lança DataIntegrityViolationException
+    // se o nome já pertence a outro usuário
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.username = :newUsername, u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int updateUsername(@Param("id") UUID id, @Param("newUsername") String newUsername);
+
+    // Troca o hash da senha apenas se ele não mudou desde a leitura (rehash com custo maior no login)
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int replacePasswordHash(@Param("id") UUID id, @Param("oldPassword") String oldPassword,
+                            @Param("newPassword") String newPassword);
+
+    // Página seguinte (keyset) de usuários pelo nome, com filtro opcional de papel em consultas separadas
+    // (um "OR :role IS NULL" impediria o uso do índice composto)
+    @Query(value = SUMMARY_COLUMNS + SUMMARY_FILTER + SUMMARY_ORDER, nativeQuery = true)
+    List<UserSummary> findSummaryPage(@Param("after") String after, @Param("from") String from,
+                                      @Param("to") String to, Pageable pageable);
+
+    @Query(value = SUMMARY_COLUMNS + SUMMARY_FILTER + "AND u.role = :role " + SUMMARY_ORDER, nativeQuery = true)
+    List<UserSummary> findSummaryPageByRole(@Param("role") String role, @Param("after") String after,
+                                            @Param("from") String from, @Param("to") String to, Pageable pageable);
+
+    // Percorre os usuários filtrados com cursor no servidor (exige transação aberta e o stream fechado ao final)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = SUMMARY_COLUMNS + SUMMARY_FILTER + SUMMARY_ORDER, nativeQuery = true)
+    Stream<UserSummary> streamSummaries(@Param("after") String after, @Param("from") String from,
+                                        @Param("to") String to);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = SUMMARY_COLUMNS + SUMMARY_FILTER + "AND u.role = :role " + SUMMARY_ORDER, nativeQuery = true)
+    Stream<UserSummary> streamSummariesByRole(@Param("role") String role, @Param("after") String after,
+                                              @Param("from") String from, @Param("to") String to);
 }
\ No newline at end of file
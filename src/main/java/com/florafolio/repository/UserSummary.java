@@ -0,0 +1,14 @@
+package com.florafolio.repository;
+
+import java.util.UUID;
+
+// Projeção fechada para a listagem administrativa de usuários (sem o hash da senha)
+public interface UserSummary {
+    UUID getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getRole();
+}
\ No newline at end of file
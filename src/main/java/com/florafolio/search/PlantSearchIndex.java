@@ -0,0 +1,388 @@
+package com.florafolio.search;
+
+import com.florafolio.model.Plant;
+import com.florafolio.repository.PlantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido de trigramas em memória sobre os nomes das plantas (opcional, para nós com muita leitura).
+// Cada planta recebe um ordinal denso; as listas de postings são arrays de int ordenados por ordinal.
+@Component
+public class PlantSearchIndex {
+
+    public enum Field {
+        POPULAR_NAME,
+        SCIENTIFIC_NAME,
+        FAMILY
+    }
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Value("${plants.search.index.enabled:false}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializa as reconstruções (inicialização e pedidos de outras instâncias)
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final List<Map<Long, Postings>> postings = new ArrayList<>();
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private String[][] texts = new String[Field.values().length][INITIAL_CAPACITY];
+    private int nextOrdinal;
+    private int liveCount;
+
+    // IDs alterados pelo fluxo de escrita enquanto o índice é construído (têm prioridade sobre a leitura inicial)
+    private Set<UUID> touchedDuringBuild;
+    private volatile boolean ready;
+
+    public PlantSearchIndex() {
+        for (int i = 0; i < Field.values().length; i++) {
+            postings.add(new HashMap<>());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Constrói o índice a partir do banco, em lotes paginados por ID. Também atende às reconstruções pedidas
+    // por outras instâncias (ver PlantSearchSync), uma de cada vez; plantas que não existem mais saem ao final.
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        // ReentrantLock em vez de synchronized: a leitura paginada do banco não prende a virtual thread à
+        // thread de plataforma durante a reconstrução
+        buildLock.lock();
+        try {
+            rebuild();
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            touchedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        UUID lastId = new UUID(0L, 0L);
+        List<Plant> batch;
+        do {
+            batch = plantRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Plant plant : batch) {
+                    seen.add(plant.getId());
+                    if (!touchedDuringBuild.contains(plant.getId())) {
+                        removeOrdinal(plant.getId());
+                        add(plant.getId(), normalizedTexts(plant));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            List<UUID> stale = new ArrayList<>();
+            for (UUID id : ordinals.keySet()) {
+                if (!seen.contains(id) && !touchedDuringBuild.contains(id)) {
+                    stale.add(id);
+                }
+            }
+            for (UUID id : stale) {
+                removeOrdinal(id);
+            }
+            touchedDuringBuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Índice de busca de plantas construído: " + liveCount + " plantas em "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Inclui ou atualiza uma planta no índice
+    public void upsert(Plant plant) {
+        if (!enabled) {
+            return;
+        }
+        String[] normalized = normalizedTexts(plant);
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringBuild != null) {
+                touchedDuringBuild.add(plant.getId());
+            }
+            removeOrdinal(plant.getId());
+            add(plant.getId(), normalized);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Remove uma planta do índice
+    public void remove(UUID id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringBuild != null) {
+                touchedDuringBuild.add(id);
+            }
+            removeOrdinal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Busca os IDs das plantas cujo texto normalizado contém o termo em algum dos campos, por relevância:
+    // nome igual ao termo, começando pelo termo, palavra começando pelo termo e, por fim, contendo o termo
+    public List<UUID> search(String term, Set<Field> fields, int limit) {
+        String query = TextNormalizer.normalize(term);
+        if (query == null) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = new HashMap<>();
+            for (Field field : fields) {
+                String[] fieldTexts = texts[field.ordinal()];
+                int[] candidates = candidates(field, query);
+                int count = candidates == null ? nextOrdinal : candidates.length;
+                for (int i = 0; i < count; i++) {
+                    int ordinal = candidates == null ? i : candidates[i];
+                    if (!live.get(ordinal)) {
+                        continue;
+                    }
+                    int score = score(fieldTexts[ordinal], query);
+                    if (score >= 0) {
+                        scores.merge(ordinal, score, Math::min);
+                    }
+                }
+            }
+
+            List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Integer, Integer>comparingByValue()
+                    .thenComparing(Map.Entry.<Integer, Integer>comparingByKey()));
+            List<UUID> result = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                result.add(ids[ranked.get(i).getKey()]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Interseção das postings dos trigramas do termo; null quando o termo é curto demais e exige varredura
+    private int[] candidates(Field field, String query) {
+        long[] keys = trigrams(query);
+        if (keys.length == 0) {
+            return null;
+        }
+        Map<Long, Postings> fieldPostings = postings.get(field.ordinal());
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = fieldPostings.get(keys[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = Arrays.copyOf(lists[0].ordinals, lists[0].size);
+        int size = result.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            size = intersect(result, size, lists[i]);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // Interseção ordenada, escrevendo o resultado no próprio array
+    private static int intersect(int[] result, int size, Postings other) {
+        int i = 0;
+        int j = 0;
+        int out = 0;
+        while (i < size && j < other.size) {
+            if (result[i] < other.ordinals[j]) {
+                i++;
+            } else if (result[i] > other.ordinals[j]) {
+                j++;
+            } else {
+                result[out++] = result[i];
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    private static int score(String text, String query) {
+        if (text == null) {
+            return -1;
+        }
+        int index = text.indexOf(query);
+        if (index < 0) {
+            return -1;
+        }
+        if (text.length() == query.length()) {
+            return 0;
+        }
+        if (index == 0) {
+            return 1;
+        }
+        return Character.isLetterOrDigit(text.charAt(index - 1)) ? 3 : 2;
+    }
+
+    private String[] normalizedTexts(Plant plant) {
+        String[] normalized = new String[Field.values().length];
+        normalized[Field.POPULAR_NAME.ordinal()] = TextNormalizer.normalize(plant.getPopularName());
+        normalized[Field.SCIENTIFIC_NAME.ordinal()] = TextNormalizer.normalize(plant.getScientificName());
+        normalized[Field.FAMILY.ordinal()] = TextNormalizer.normalize(plant.getFamily());
+        return normalized;
+    }
+
+    // Deve ser chamado com o lock de escrita
+    private void add(UUID id, String[] normalized) {
+        int ordinal = nextOrdinal++;
+        ensureCapacity(nextOrdinal);
+        ids[ordinal] = id;
+        for (Field field : Field.values()) {
+            String text = normalized[field.ordinal()];
+            texts[field.ordinal()][ordinal] = text;
+            Map<Long, Postings> fieldPostings = postings.get(field.ordinal());
+            for (long key : trigrams(text)) {
+                fieldPostings.computeIfAbsent(key, k -> new Postings()).add(ordinal);
+            }
+        }
+        ordinals.put(id, ordinal);
+        live.set(ordinal);
+        liveCount++;
+    }
+
+    // Deve ser chamado com o lock de escrita; as postings do ordinal removido são descartadas na compactação
+    private void removeOrdinal(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        ids[ordinal] = null;
+        for (String[] fieldTexts : texts) {
+            fieldTexts[ordinal] = null;
+        }
+        liveCount--;
+
+        int dead = nextOrdinal - liveCount;
+        if (dead > INITIAL_CAPACITY && dead > liveCount) {
+            compact();
+        }
+    }
+
+    // Renumera os ordinais vivos e reconstrói as postings sem as entradas removidas
+    private void compact() {
+        UUID[] oldIds = ids;
+        String[][] oldTexts = texts;
+        int oldNext = nextOrdinal;
+
+        ordinals.clear();
+        live.clear();
+        for (Map<Long, Postings> fieldPostings : postings) {
+            fieldPostings.clear();
+        }
+        int capacity = Math.max(INITIAL_CAPACITY, liveCount * 2);
+        ids = new UUID[capacity];
+        texts = new String[Field.values().length][capacity];
+        nextOrdinal = 0;
+        liveCount = 0;
+
+        for (int ordinal = 0; ordinal < oldNext; ordinal++) {
+            if (oldIds[ordinal] != null) {
+                String[] normalized = new String[oldTexts.length];
+                for (int f = 0; f < oldTexts.length; f++) {
+                    normalized[f] = oldTexts[f][ordinal];
+                }
+                add(oldIds[ordinal], normalized);
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int newCapacity = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newCapacity);
+            for (int f = 0; f < texts.length; f++) {
+                texts[f] = Arrays.copyOf(texts[f], newCapacity);
+            }
+        }
+    }
+
+    // Trigramas distintos do texto, cada um empacotado em um long (3 chars de 16 bits)
+    private static long[] trigrams(String text) {
+        if (text == null || text.length() < 3) {
+            return new long[0];
+        }
+        long[] keys = new long[text.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    // Lista de postings: ordinais em ordem crescente (novos ordinais são sempre maiores)
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.florafolio.search;
+
+import com.florafolio.model.Plant;
+import com.florafolio.repository.PlantRepository;
+import com.florafolio.service.PlantCacheService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Mantém o índice de busca e a árvore de sugestões desta instância em dia com as escritas feitas em qualquer instância,
+// a partir das mensagens de invalidação de plantas publicadas após cada commit.
+// Uma mensagem com IDs (um, ou vários separados por vírgula após uma criação em lote) recarrega essas plantas
+// do banco em uma única consulta; "*" reconstrói tudo.
+@Component
+public class PlantSearchSync {
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlantSearchIndex plantSearchIndex;
+
+    @Autowired
+    private PlantSuggester plantSuggester;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    // Serializa leitura e aplicação de cada planta: como a própria instância também recebe as mensagens
+    // que publica, a última mensagem de cada planta sempre deixa a versão mais recente
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        if (plantSearchIndex.isEnabled() || plantSuggester.isEnabled()) {
+            listenerContainer.addMessageListener(
+                (message, pattern) -> onPlantChanged(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(PlantCacheService.INVALIDATION_CHANNEL));
+        }
+    }
+
+    private void onPlantChanged(String message) {
+        if (PlantCacheService.INVALIDATE_ALL.equals(message)) {
+            rebuild();
+            return;
+        }
+        Set<UUID> ids = new HashSet<>();
+        try {
+            for (String id : message.split(",")) {
+                ids.add(UUID.fromString(id));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Mensagem de invalidação inválida: " + message);
+            return;
+        }
+        lock.lock();
+        try {
+            for (Plant plant : plantRepository.findAllById(ids)) {
+                ids.remove(plant.getId());
+                plantSearchIndex.upsert(plant);
+                plantSuggester.upsert(plant);
+            }
+            // As que não vieram do banco foram excluídas
+            for (UUID id : ids) {
+                plantSearchIndex.remove(id);
+                plantSuggester.remove(id);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao sincronizar as plantas alteradas: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Pedidos que chegam durante uma reconstrução são atendidos por uma única reconstrução seguinte
+    private void rebuild() {
+        rebuildRequested.set(true);
+        while (rebuildRequested.get() && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuildRequested.set(false);
+                plantSearchIndex.build();
+                plantSuggester.build();
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao reconstruir o índice e as sugestões de plantas: " + e.getMessage());
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,456 @@
+package com.florafolio.search;
+
+import com.florafolio.model.Plant;
+import com.florafolio.repository.PlantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Autocompletar de nomes de plantas sobre uma árvore radix (trie compacta) em memória.
+// Cada nome é indexado inteiro e a partir de cada palavra ("sao jorge" também encontra "Espada de São Jorge").
+@Component
+public class PlantSuggester {
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+    // Limites que mantêm a memória da árvore previsível
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_WORDS_PER_NAME = 8;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Value("${plants.suggest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plants.suggest.max-keys:500000}")
+    private int maxKeys;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializa as reconstruções (inicialização e pedidos de outras instâncias)
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private final Node root = new Node();
+    // Chaves inseridas por planta, para remoção incremental
+    private final Map<UUID, List<String>> keysById = new HashMap<>();
+    private int keyCount;
+    private boolean capacityWarned;
+
+    private Set<UUID> touchedDuringBuild;
+    private volatile boolean ready;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Construção inicial e reconstruções pedidas por outras instâncias (ver PlantSearchSync), uma de cada vez.
+    // Plantas que não existem mais no banco saem da árvore ao final.
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        // ReentrantLock em vez de synchronized: a leitura paginada do banco não prende a virtual thread à
+        // thread de plataforma durante a reconstrução
+        buildLock.lock();
+        try {
+            rebuild();
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            touchedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        UUID lastId = new UUID(0L, 0L);
+        List<Plant> batch;
+        do {
+            batch = plantRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Plant plant : batch) {
+                    seen.add(plant.getId());
+                    if (!touchedDuringBuild.contains(plant.getId())) {
+                        removeKeys(plant.getId());
+                        addKeys(plant);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            List<UUID> stale = new ArrayList<>();
+            for (UUID id : keysById.keySet()) {
+                if (!seen.contains(id) && !touchedDuringBuild.contains(id)) {
+                    stale.add(id);
+                }
+            }
+            for (UUID id : stale) {
+                removeKeys(id);
+            }
+            touchedDuringBuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Árvore de sugestões de plantas construída: " + keyCount + " chaves em "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public void upsert(Plant plant) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringBuild != null) {
+                touchedDuringBuild.add(plant.getId());
+            }
+            removeKeys(plant.getId());
+            addKeys(plant);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringBuild != null) {
+                touchedDuringBuild.add(id);
+            }
+            removeKeys(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Até "limit" sugestões (uma por planta) cujos nomes, ou alguma de suas palavras, começam pelo prefixo.
+    // As melhores vêm primeiro: a chave exata, depois as chaves mais curtas e, entre chaves do mesmo tamanho,
+    // o nome em ordem alfabética. O nome devolvido é o que casou com o prefixo (popular ou científico).
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = TextNormalizer.normalize(prefix);
+        List<Suggestion> suggestions = new ArrayList<>();
+        if (key == null || key.isEmpty() || limit <= 0) {
+            return suggestions;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            key = key.substring(0, MAX_KEY_LENGTH);
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int pos = 0;
+            int depth = 0;
+            while (pos < key.length()) {
+                int i = node.indexOf(key.charAt(pos));
+                if (i < 0) {
+                    return suggestions;
+                }
+                String label = node.labels[i];
+                int length = Math.min(label.length(), key.length() - pos);
+                if (!label.regionMatches(0, key, pos, length)) {
+                    return suggestions;
+                }
+                pos += length;
+                depth += label.length();
+                node = node.children[i];
+            }
+            for (Candidate candidate : collect(node, depth, limit)) {
+                suggestions.add(new Suggestion(candidate.id, candidate.name));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Percorre a subárvore em ordem crescente de tamanho de chave e para assim que há "limit" plantas e todas as
+    // chaves do mesmo tamanho da última foram vistas, de modo que o corte não descarta uma sugestão melhor.
+    // Cada planta fica com a sua chave mais curta.
+    private List<Candidate> collect(Node start, int startDepth, int limit) {
+        Map<UUID, Candidate> collected = new LinkedHashMap<>();
+        PriorityQueue<Frontier> queue = new PriorityQueue<>(Comparator.comparingInt((Frontier f) -> f.depth));
+        queue.add(new Frontier(start, startDepth));
+        int cutoff = Integer.MAX_VALUE;
+        while (!queue.isEmpty() && queue.peek().depth <= cutoff) {
+            Frontier current = queue.poll();
+            Node node = current.node;
+            for (int e = 0; e < node.entryCount; e++) {
+                collected.putIfAbsent(node.entryIds[e],
+                        new Candidate(node.entryIds[e], node.entryNames[e], current.depth));
+            }
+            if (collected.size() >= limit && cutoff == Integer.MAX_VALUE) {
+                cutoff = current.depth;
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                queue.add(new Frontier(node.children[i], current.depth + node.labels[i].length()));
+            }
+        }
+        List<Candidate> ranked = new ArrayList<>(collected.values());
+        ranked.sort(Comparator.comparingInt((Candidate c) -> c.keyLength)
+                .thenComparing(c -> c.name, String.CASE_INSENSITIVE_ORDER));
+        return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+    }
+
+    // Deve ser chamado com o lock de escrita
+    private void addKeys(Plant plant) {
+        List<String> keys = new ArrayList<>();
+        addNameKeys(plant.getId(), plant.getPopularName(), keys);
+        addNameKeys(plant.getId(), plant.getScientificName(), keys);
+        if (!keys.isEmpty()) {
+            keysById.put(plant.getId(), keys);
+        }
+    }
+
+    private void addNameKeys(UUID id, String name, List<String> keys) {
+        String normalized = TextNormalizer.normalize(name);
+        if (normalized == null || normalized.isEmpty()) {
+            return;
+        }
+        int words = 0;
+        int start = 0;
+        while (start >= 0 && words < MAX_WORDS_PER_NAME) {
+            String key = normalized.substring(start);
+            if (key.length() > MAX_KEY_LENGTH) {
+                key = key.substring(0, MAX_KEY_LENGTH);
+            }
+            if (keyCount >= maxKeys) {
+                if (!capacityWarned) {
+                    System.err.println("Limite de chaves da árvore de sugestões atingido (" + maxKeys + ")");
+                    capacityWarned = true;
+                }
+                return;
+            }
+            insert(root, key, 0, id, name);
+            keys.add(key);
+            keyCount++;
+            words++;
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+    }
+
+    // Deve ser chamado com o lock de escrita
+    private void removeKeys(UUID id) {
+        List<String> keys = keysById.remove(id);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            remove(root, key, 0, id);
+            keyCount--;
+        }
+    }
+
+    private void insert(Node node, String key, int pos, UUID id, String name) {
+        while (pos < key.length()) {
+            int i = node.indexOf(key.charAt(pos));
+            if (i < 0) {
+                Node leaf = new Node();
+                leaf.addEntry(id, name);
+                node.addChild(key.substring(pos), leaf);
+                return;
+            }
+            String label = node.labels[i];
+            int common = 0;
+            while (common < label.length() && pos + common < key.length()
+                    && label.charAt(common) == key.charAt(pos + common)) {
+                common++;
+            }
+            if (common < label.length()) {
+                // Divide a aresta no ponto em que a chave diverge
+                Node middle = new Node();
+                middle.addChild(label.substring(common), node.children[i]);
+                node.labels[i] = label.substring(0, common);
+                node.children[i] = middle;
+            }
+            node = node.children[i];
+            pos += common;
+        }
+        node.addEntry(id, name);
+    }
+
+    private void remove(Node node, String key, int pos, UUID id) {
+        if (pos == key.length()) {
+            node.removeEntry(id);
+            return;
+        }
+        int i = node.indexOf(key.charAt(pos));
+        if (i < 0 || !key.startsWith(node.labels[i], pos)) {
+            return;
+        }
+        Node child = node.children[i];
+        remove(child, key, pos + node.labels[i].length(), id);
+        if (child.entryCount == 0 && child.childCount == 0) {
+            node.removeChild(i);
+        } else if (child.entryCount == 0 && child.childCount == 1) {
+            // Funde a aresta para manter a árvore compacta
+            node.labels[i] = node.labels[i] + child.labels[0];
+            node.children[i] = child.children[0];
+        }
+    }
+
+    private static final class Frontier {
+        private final Node node;
+        private final int depth;
+
+        private Frontier(Node node, int depth) {
+            this.node = node;
+            this.depth = depth;
+        }
+    }
+
+    private static final class Candidate {
+        private final UUID id;
+        private final String name;
+        private final int keyLength;
+
+        private Candidate(UUID id, String name, int keyLength) {
+            this.id = id;
+            this.name = name;
+            this.keyLength = keyLength;
+        }
+    }
+
+    public static class Suggestion {
+        private final UUID id;
+        private final String name;
+
+        public Suggestion(UUID id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    // Nó da árvore: arestas ordenadas pelo primeiro caractere e as plantas cujas chaves terminam aqui
+    private static final class Node {
+        private static final String[] NO_LABELS = new String[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final UUID[] NO_IDS = new UUID[0];
+        private static final String[] NO_NAMES = new String[0];
+
+        private String[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        private UUID[] entryIds = NO_IDS;
+        private String[] entryNames = NO_NAMES;
+        private int entryCount;
+
+        private int indexOf(char c) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = labels[mid].charAt(0);
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private void addChild(String label, Node child) {
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            int i = childCount;
+            while (i > 0 && labels[i - 1].charAt(0) > label.charAt(0)) {
+                labels[i] = labels[i - 1];
+                children[i] = children[i - 1];
+                i--;
+            }
+            labels[i] = label;
+            children[i] = child;
+            childCount++;
+        }
+
+        private void removeChild(int index) {
+            int moved = childCount - index - 1;
+            System.arraycopy(labels, index + 1, labels, index, moved);
+            System.arraycopy(children, index + 1, children, index, moved);
+            childCount--;
+            labels[childCount] = null;
+            children[childCount] = null;
+        }
+
+        private void addEntry(UUID id, String name) {
+            for (int e = 0; e < entryCount; e++) {
+                if (entryIds[e].equals(id)) {
+                    return;
+                }
+            }
+            if (entryCount == entryIds.length) {
+                int capacity = Math.max(1, entryCount * 2);
+                entryIds = Arrays.copyOf(entryIds, capacity);
+                entryNames = Arrays.copyOf(entryNames, capacity);
+            }
+            entryIds[entryCount] = id;
+            entryNames[entryCount] = name;
+            entryCount++;
+        }
+
+        private void removeEntry(UUID id) {
+            for (int e = 0; e < entryCount; e++) {
+                if (entryIds[e].equals(id)) {
+                    entryCount--;
+                    entryIds[e] = entryIds[entryCount];
+                    entryNames[e] = entryNames[entryCount];
+                    entryIds[entryCount] = null;
+                    entryNames[entryCount] = null;
+                    return;
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.florafolio.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Normalização usada pelas estruturas de busca em memória: minúsculas, sem acentos e espaços colapsados
+public final class TextNormalizer {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TextNormalizer() {}
+
+    // "Orquídea  São Jorge" -> "orquidea sao jorge"
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String folded = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(folded).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.florafolio.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Consulta à blacklist pelo cliente reativo do Lettuce, com timeout e circuit breaker. A consulta começa antes da
+// verificação da assinatura, mas a thread do servlet ainda espera o resultado em await() por até "timeout-ms".
+// Depois de "failure-threshold" falhas seguidas o circuito abre por "open-ms"; em seguida uma única consulta
+// de teste decide se ele fecha. Com o circuito aberto, a consulta falha na hora, sem esperar pelo Redis.
+// Só contam para o circuito os resultados de tokens com assinatura verificada (ver await()).
+@Service
+public class AsyncTokenBlacklistService {
+
+    @Value("${token.blacklist.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${token.blacklist.async.timeout-ms:200}")
+    private long timeoutMs;
+
+    @Value("${token.blacklist.async.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${token.blacklist.async.open-ms:10000}")
+    private long openMs;
+
+    @Autowired
+    private ReactiveStringRedisTemplate reactiveRedisTemplate;
+
+    @Autowired
+    private RevokedTokenFilter revokedTokenFilter;
+
+    private static final CompletableFuture<Boolean> NOT_REVOKED = CompletableFuture.completedFuture(false);
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openUntil;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Completa com true/false, ou com RevocationCheckUnavailableException (circuito aberto, timeout ou erro do Redis)
+    public CompletableFuture<Boolean> isTokenBlacklisted(String blacklistId) {
+        // Negativo do filtro local: o token com certeza não foi revogado
+        if (!revokedTokenFilter.mightBeRevoked(blacklistId)) {
+            return NOT_REVOKED;
+        }
+        boolean trial = false;
+        if (consecutiveFailures.get() >= failureThreshold) {
+            if (System.currentTimeMillis() < openUntil || !trialInFlight.compareAndSet(false, true)) {
+                return CompletableFuture.failedFuture(
+                        new RevocationCheckUnavailableException("Circuito da blacklist aberto", null));
+            }
+            trial = true;
+        }
+
+        boolean halfOpenTrial = trial;
+        return reactiveRedisTemplate.hasKey(TokenBlacklistService.TOKEN_BLACKLIST_PREFIX + blacklistId)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .toFuture()
+                .handle((exists, error) -> {
+                    if (halfOpenTrial) {
+                        trialInFlight.set(false);
+                    }
+                    if (error != null) {
+                        throw new RevocationCheckUnavailableException("Consulta à blacklist falhou", error);
+                    }
+                    return Boolean.TRUE.equals(exists);
+                });
+    }
+
+    // Espera o resultado de uma consulta iniciada por isTokenBlacklisted e o registra no circuito. Deve ser chamado
+    // só depois que a assinatura do token foi verificada: consultas de tokens forjados nunca abrem o circuito.
+    public boolean await(CompletableFuture<Boolean> lookup) {
+        try {
+            boolean revoked = lookup.join();
+            // A resposta do filtro local não diz nada sobre a saúde do Redis
+            if (lookup != NOT_REVOKED) {
+                consecutiveFailures.set(0);
+            }
+            return revoked;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RevocationCheckUnavailableException) {
+                RevocationCheckUnavailableException unavailable = (RevocationCheckUnavailableException) e.getCause();
+                // Sem causa: o circuito já estava aberto e o Redis não foi consultado
+                if (unavailable.getCause() != null) {
+                    recordFailure();
+                }
+                throw unavailable;
+            }
+            throw e;
+        }
+    }
+
+    // Tempo sugerido ao cliente (Retry-After) antes de tentar de novo
+    public long getRetryAfterSeconds() {
+        long remainingMs = openUntil - System.currentTimeMillis();
+        return Math.max(1, (remainingMs + 999) / 1000);
+    }
+
+    private void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntil = System.currentTimeMillis() + openMs;
+            System.err.println("Circuito da blacklist aberto por " + openMs + " ms");
+        }
+    }
+
+    public static class RevocationCheckUnavailableException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public RevocationCheckUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
\ No newline at end of file
@@ -3,8 +3,10 @@ package com.florafolio.security;
 import org.springframework.lang.NonNull;
 import io.jsonwebtoken.ExpiredJwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,10 +18,14 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
+    // Atributo da requisição com o VerifiedToken, lido pelos controllers via @RequestAttribute
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = "florafolio.verifiedToken";
+
     @Autowired
     @Lazy
     private CustomUserDetailsService userDetailsService;
@@ -27,47 +33,99 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private AsyncTokenBlacklistService asyncTokenBlacklistService;
+
+    // Monta o principal a partir das claims, sem carregar o usuário do banco a cada requisição
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
     @Override
     protected void doFilterInternal( @NonNull HttpServletRequest request,@NonNull HttpServletResponse response,@NonNull FilterChain chain)
             throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
+        VerifiedToken verifiedToken = null;
         String jwt = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
             try {
-                // Check if token is revoked before processing it
-                if (jwtUtil.isTokenRevoked(jwt)) {
+                // Com o cliente assíncrono, a consulta à blacklist começa antes da verificação da assinatura,
+                // usando o jti lido do payload; o resultado só é aproveitado se o token verificado tiver o mesmo jti
+                String peekedId = null;
+                CompletableFuture<Boolean> blacklistLookup = null;
+                if (asyncTokenBlacklistService.isEnabled()) {
+                    peekedId = VerifiedToken.peekBlacklistId(jwt);
+                    if (peekedId != null) {
+                        blacklistLookup = asyncTokenBlacklistService.isTokenBlacklisted(peekedId);
+                    }
+                }
+
+                // Assinatura e expiração são verificadas uma única vez por requisição
+                VerifiedToken candidate = jwtUtil.verifyToken(jwt);
+
+                // A blacklist é indexada pelo jti, disponível após a verificação
+                boolean revoked = blacklistLookup != null && peekedId.equals(candidate.getBlacklistId())
+                        ? jwtUtil.isTokenRevoked(candidate, blacklistLookup)
+                        : jwtUtil.isTokenRevoked(candidate);
+                if (revoked) {
                     logger.error("Token has been revoked");
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.getWriter().write("Token revoked");
                     return;
                 }
-                
-                username = jwtUtil.extractUsername(jwt);
+                verifiedToken = candidate;
             } catch (ExpiredJwtException e) {
                 logger.error("JWT token expirado: {}", e);
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Token expirado");
                 return;
+            } catch (AsyncTokenBlacklistService.RevocationCheckUnavailableException e) {
+                // Sem saber se o token foi revogado, a requisição é recusada (a espera pelo Redis fica limitada ao timeout)
+                logger.warn("Checagem de revogação indisponível: " + e.getMessage());
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                response.setHeader("Retry-After", String.valueOf(asyncTokenBlacklistService.getRetryAfterSeconds()));
+                response.getWriter().write("Servico de autenticacao indisponivel");
+                return;
             } catch (Exception e) {
                 logger.error("Erro ao processar token JWT: {}", e);
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+        if (verifiedToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = statelessPrincipal
+                    ? userDetailsFromClaims(verifiedToken)
+                    : this.userDetailsService.loadUserByUsername(verifiedToken.getUsername());
+            if (userDetails != null && jwtUtil.validateToken(verifiedToken, userDetails)) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 usernamePasswordAuthenticationToken
                         .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, verifiedToken);
             }
         }
         chain.doFilter(request, response);
     }
+
+    // Principal a partir do token verificado; null se o usuário foi excluído ou a versão do token ficou para trás
+    private UserDetails userDetailsFromClaims(VerifiedToken verifiedToken) {
+        if (verifiedToken.getUserId() == null || verifiedToken.getRole() == null) {
+            return null;
+        }
+        Long currentVersion = tokenVersionCache.getVersion(verifiedToken.getUserId());
+        if (currentVersion == null || currentVersion != verifiedToken.getTokenVersion()) {
+            logger.warn("Token com versão desatualizada ou de usuário inexistente");
+            return null;
+        }
+        return User.withUsername(verifiedToken.getUsername())
+                .password("")
+                .authorities(verifiedToken.getRole())
+                .build();
+    }
 }
\ No newline at end of file
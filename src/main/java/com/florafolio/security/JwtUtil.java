@@ -1,7 +1,9 @@
 package com.florafolio.security;
 
 import com.florafolio.model.User;
+import jakarta.annotation.PostConstruct;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -16,7 +18,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class JwtUtil {
@@ -30,73 +32,111 @@ public class JwtUtil {
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationEpochs tokenRevocationEpochs;
+
+    @Autowired
+    private AsyncTokenBlacklistService asyncTokenBlacklistService;
+
+    // Chave HMAC e parser criados uma vez; o parser é imutável e seguro para uso concorrente
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    // Verifica assinatura e expiração uma única vez; lança JwtException se o token for inválido ou expirado.
+    // Tokens já verificados vêm do cache até o seu "exp", sem repetir o HMAC nem a leitura das claims.
+    public VerifiedToken verifyToken(String token) {
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        VerifiedToken verifiedToken = new VerifiedToken(token, jwtParser.parseClaimsJws(token).getBody());
+        verifiedTokenCache.put(verifiedToken);
+        return verifiedToken;
+    }
+
     public void revokeToken(String token) {
-        UUID userId = extractUserId(token);
-        tokenBlacklistService.blacklistToken(token, userId);
+        revokeToken(verifyToken(token));
     }
 
+    public void revokeToken(VerifiedToken verifiedToken) {
+        // A entrada na blacklist só precisa durar até o token expirar
+        tokenBlacklistService.blacklistToken(verifiedToken.getBlacklistId(), verifiedToken.getUserId(),
+                verifiedToken.getRemainingSeconds());
+        verifiedTokenCache.evict(verifiedToken.getToken());
+    }
+
+    // Invalida de uma vez todos os tokens emitidos até agora para o usuário (época de revogação)
     public void revokeAllUserTokens(UUID userId) {
-        tokenBlacklistService.revokeAllUserTokens(userId);
+        tokenRevocationEpochs.revokeUser(userId);
+        verifiedTokenCache.evictUser(userId);
+    }
+
+    public boolean isTokenRevoked(VerifiedToken verifiedToken) {
+        return tokenRevocationEpochs.isRevoked(verifiedToken)
+                || tokenBlacklistService.isTokenBlacklisted(verifiedToken.getBlacklistId());
     }
 
-    public boolean isTokenRevoked(String token) {
-        return tokenBlacklistService.isTokenBlacklisted(token);
+    // Mesma checagem, aproveitando a consulta à blacklist já iniciada em paralelo com a verificação.
+    // Só deve ser chamado com o token já verificado, pois o resultado conta para o circuit breaker.
+    // Repassa a RevocationCheckUnavailableException se a consulta não pôde ser feita.
+    public boolean isTokenRevoked(VerifiedToken verifiedToken, CompletableFuture<Boolean> blacklistLookup) {
+        if (tokenRevocationEpochs.isRevoked(verifiedToken)) {
+            return true;
+        }
+        return asyncTokenBlacklistService.await(blacklistLookup);
     }
 
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getId().toString());
         claims.put("role",  user.getRole().name());
+        claims.put("ver", user.getTokenVersion());
         return createToken(claims, user.getUsername());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
+        // O "iat" perde os milissegundos; a época de revogação compara com "iatms"
+        claims.put("iatms", now);
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration * 1000))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token) && !isTokenRevoked(token));
+    // O token verificado pertence ao usuário carregado (a revogação é checada à parte pelo filtro)
+    public boolean validateToken(VerifiedToken verifiedToken, UserDetails userDetails) {
+        return verifiedToken.getUsername().equals(userDetails.getUsername());
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verifyToken(token).getUsername();
     }
 
     public UUID extractUserId(String token) {
-        String userIdStr = extractClaim(token, claims -> claims.get("userId", String.class));
-        return UUID.fromString(userIdStr);
+        return verifyToken(token).getUserId();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verifyToken(token).getExpiration();
     }
     
     private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return signingKey;
     }
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+package com.florafolio.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Filtro de Bloom local com os IDs revogados, à frente da blacklist no Redis (opcional).
+// Um negativo do filtro dispensa a ida ao Redis; positivos e qualquer estado incerto consultam o Redis.
+// Cada revogação recebe um número de sequência no Redis e é publicada via pub/sub. Uma lacuna na sequência
+// (mensagem perdida) ou uma sequência remota que não chega descarta o filtro até a reconstrução via SCAN.
+// Nenhum token revogado é aceito: um negativo só vale se o filtro foi confirmado em dia com a sequência remota
+// há no máximo "max-staleness" ms (conferência iniciada depois da revogação), e a revogação só retorna depois
+// de esperar esse mesmo tempo (awaitPropagation). Sem confirmação recente, as consultas vão ao Redis.
+@Component
+public class RevokedTokenFilter {
+
+    static final String SEQUENCE_KEY = "token:revocations:seq";
+    static final String CHANNEL = "token:revocations";
+
+    @Value("${token.blacklist.bloom.enabled:false}")
+    private boolean enabled;
+
+    @Value("${token.blacklist.bloom.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${token.blacklist.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${token.blacklist.bloom.rebuild-interval:300000}")
+    private long rebuildIntervalMs;
+
+    @Value("${token.blacklist.bloom.sync-interval:250}")
+    private long syncIntervalMs;
+
+    // Idade máxima da última confirmação para que um negativo do filtro seja aceito; também é quanto
+    // cada revogação espera antes de retornar
+    @Value("${token.blacklist.bloom.max-staleness:1000}")
+    private long maxStalenessMs;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // null enquanto o filtro não está pronto (todas as consultas vão ao Redis)
+    private volatile BloomFilter filter;
+    private BloomFilter building;
+    private long lastSequence;
+    private long pendingRemoteSequence = -1;
+    // Instante (System.nanoTime) em que começou a última leitura da sequência remota já alcançada pelo filtro
+    private volatile long confirmedAt;
+    private long lastBuild;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            if (maxStalenessMs <= syncIntervalMs) {
+                System.err.println("token.blacklist.bloom.max-staleness deve ser maior que sync-interval; "
+                        + "o filtro raramente será usado");
+            }
+            listenerContainer.addMessageListener(
+                (message, pattern) -> onRevocation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANNEL));
+        }
+    }
+
+    // false somente quando o filtro está pronto, foi confirmado recentemente e garante que o ID nunca foi revogado
+    public boolean mightBeRevoked(String blacklistId) {
+        BloomFilter current = filter;
+        return current == null
+                || System.nanoTime() - confirmedAt > TimeUnit.MILLISECONDS.toNanos(maxStalenessMs)
+                || current.mightContain(digest(blacklistId));
+    }
+
+    // Chamado após gravar uma revogação no Redis: ao retornar, toda instância que ainda aceita negativos do filtro
+    // confirmou a sequência remota depois da gravação, portanto já recebeu esta revogação
+    public void awaitPropagation() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Thread.sleep(maxStalenessMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera pela propagação da revogação interrompida", e);
+        }
+    }
+
+    // Registra na hora uma revogação feita por esta instância
+    public void add(String blacklistId) {
+        if (!enabled) {
+            return;
+        }
+        byte[] digest = digest(blacklistId);
+        lock.lock();
+        try {
+            putAll(digest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Mensagem "sequência:digest" publicada a cada revogação
+    private void onRevocation(String body) {
+        int separator = body.indexOf(':');
+        long sequence;
+        byte[] digest;
+        try {
+            sequence = Long.parseLong(body.substring(0, separator));
+            digest = Base64.getUrlDecoder().decode(body.substring(separator + 1));
+        } catch (RuntimeException e) {
+            System.err.println("Mensagem de revogação inválida: " + body);
+            return;
+        }
+        lock.lock();
+        try {
+            putAll(digest);
+            if (sequence > lastSequence + 1 && (filter != null || building != null)) {
+                System.err.println("Lacuna nas revogações recebidas; o filtro de tokens revogados será reconstruído");
+                filter = null;
+                building = null;
+            }
+            lastSequence = Math.max(lastSequence, sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Deve ser chamado com o lock
+    private void putAll(byte[] digest) {
+        if (filter != null) {
+            filter.put(digest);
+        }
+        if (building != null) {
+            building.put(digest);
+        }
+    }
+
+    // Reconstrói o filtro quando ele não está pronto ou ficou antigo; senão confere a sequência remota
+    @Scheduled(fixedDelayString = "${token.blacklist.bloom.sync-interval:250}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (filter == null || System.currentTimeMillis() - lastBuild >= rebuildIntervalMs) {
+                rebuild();
+            } else {
+                checkSequence();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao sincronizar o filtro de tokens revogados: " + e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        BloomFilter target = new BloomFilter(expectedInsertions, falsePositiveRate);
+        // Toda revogação grava a chave antes de incrementar a sequência e publicar: as de sequência até
+        // "remote" aparecem no SCAN e as posteriores chegam pelo pub/sub, já direcionadas ao novo filtro
+        long readStart = System.nanoTime();
+        long remote = remoteSequence();
+        lock.lock();
+        try {
+            building = target;
+            lastSequence = Math.max(lastSequence, remote);
+        } finally {
+            lock.unlock();
+        }
+
+        long count = 0;
+        ScanOptions options = ScanOptions.scanOptions()
+            .match(TokenBlacklistService.TOKEN_BLACKLIST_PREFIX + "*")
+            .count(1000)
+            .build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                target.put(digest(keys.next().substring(TokenBlacklistService.TOKEN_BLACKLIST_PREFIX.length())));
+                count++;
+            }
+        }
+
+        lock.lock();
+        try {
+            if (building != target) {
+                return;
+            }
+            // A confirmação é publicada antes do filtro, para que nunca se veja o filtro novo com uma confirmação antiga
+            confirmedAt = readStart;
+            filter = target;
+            building = null;
+            pendingRemoteSequence = -1;
+            lastBuild = System.currentTimeMillis();
+        } finally {
+            lock.unlock();
+        }
+        System.out.println("Filtro de tokens revogados construído: " + count + " chaves em "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Confirma o filtro quando as mensagens recebidas alcançam a sequência remota. Se ela já estava à frente na
+    // verificação anterior e as mensagens não chegaram, descarta o filtro.
+    private void checkSequence() {
+        long readStart = System.nanoTime();
+        long remote = remoteSequence();
+        lock.lock();
+        try {
+            if (remote <= lastSequence) {
+                confirmedAt = readStart;
+                pendingRemoteSequence = -1;
+                return;
+            }
+            if (pendingRemoteSequence >= 0 && lastSequence < pendingRemoteSequence) {
+                System.err.println("Revogações não recebidas via pub/sub; o filtro de tokens revogados será reconstruído");
+                filter = null;
+                pendingRemoteSequence = -1;
+                return;
+            }
+            pendingRemoteSequence = remote;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long remoteSequence() {
+        String value = redisTemplate.opsForValue().get(SEQUENCE_KEY);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    static byte[] digest(String blacklistId) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(blacklistId.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String encodedDigest(String blacklistId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest(blacklistId));
+    }
+}
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.florafolio.security;
 
+import com.florafolio.ratelimit.RequestAdmissionFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +16,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
 
 import java.util.Collections;
 
@@ -24,29 +27,40 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    @Autowired
+    private RequestAdmissionFilter requestAdmissionFilter;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/login", "/register","/plants/**").permitAll()
                 .requestMatchers("/error").permitAll()
+                .requestMatchers(org.springframework.http.HttpMethod.GET, "/admin/plants/**").hasAuthority("ADMIN")
                 .requestMatchers(org.springframework.http.HttpMethod.POST, "/admin/plants/**").hasAuthority("ADMIN")
                 .requestMatchers(org.springframework.http.HttpMethod.PUT, "/admin/plants/**").hasAuthority("ADMIN")
                 .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/admin/plants/**").hasAuthority("ADMIN")
+                .requestMatchers(org.springframework.http.HttpMethod.GET, "/admin/users/**").hasAuthority("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             );
 
+        // Admissão (taxa por rota e concorrência) antes de tudo, inclusive da leitura do usuário pelo JWT
+        http.addFilterBefore(requestAdmissionFilter, SecurityContextHolderFilter.class);
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
     }
 
+    // Custo do BCrypt; hashes com custo menor são refeitos no próximo login bem-sucedido
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
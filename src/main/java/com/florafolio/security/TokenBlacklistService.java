@@ -1,60 +1,163 @@
 package com.florafolio.security;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
-import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class TokenBlacklistService {
 
-    private static final String TOKEN_BLACKLIST_PREFIX = "token:blacklist:";
-    private static final String USER_TOKENS_PREFIX = "user:tokens:";
+    static final String TOKEN_BLACKLIST_PREFIX = "token:blacklist:";
 
-    @Value("${token.blacklist.expiration:604800}")
-    private long blacklistExpiration;
+    // Grava a revogação, numera e publica para os filtros locais das instâncias, nessa ordem e de forma atômica
+    // KEYS[1] = chave da blacklist, KEYS[2] = sequência; ARGV[1] = usuário, ARGV[2] = TTL, ARGV[3] = canal, ARGV[4] = digest
+    private static final RedisScript<Long> BLACKLIST_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) " +
+        "local seq = redis.call('INCR', KEYS[2]) " +
+        "redis.call('PUBLISH', ARGV[3], seq .. ':' .. ARGV[4]) " +
+        "return seq",
+        Long.class);
 
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private RevokedTokenFilter revokedTokenFilter;
+
+    // Agrupa revogações concorrentes em um único pipeline para o Redis (opcional)
+    @Value("${token.blacklist.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${token.blacklist.batch.max-size:128}")
+    private int batchMaxSize;
+
+    @Value("${token.blacklist.batch.timeout-ms:2000}")
+    private long batchTimeoutMs;
+
+    private final BlockingQueue<PendingRevocation> pending = new LinkedBlockingQueue<>();
+    private Thread flusher;
+
+    @PostConstruct
+    public void init() {
+        if (batchEnabled) {
+            flusher = new Thread(this::flushLoop, "token-revocation-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+    }
+
  
-    public void blacklistToken(String token, UUID userId) {
-        String tokenKey = TOKEN_BLACKLIST_PREFIX + token;
-        redisTemplate.opsForValue().set(tokenKey, userId.toString(), blacklistExpiration, TimeUnit.SECONDS);
-        
-        // Associa o token com o usuário para revogação em massa
-        String userTokensKey = USER_TOKENS_PREFIX + userId.toString();
-        redisTemplate.opsForSet().add(userTokensKey, token);
-        redisTemplate.expire(userTokensKey, blacklistExpiration, TimeUnit.SECONDS);
+    // Revoga o token pelo seu ID (jti), mantendo a entrada apenas pelo tempo de vida restante do token.
+    // Retorna só depois que a revogação foi gravada no Redis, com ou sem agrupamento, e chegou aos filtros locais.
+    public void blacklistToken(String blacklistId, UUID userId, long ttlSeconds) {
+        writeRevocation(blacklistId, userId, ttlSeconds);
+        revokedTokenFilter.awaitPropagation();
     }
 
+    private void writeRevocation(String blacklistId, UUID userId, long ttlSeconds) {
+        revokedTokenFilter.add(blacklistId);
+        List<String> keys = Arrays.asList(TOKEN_BLACKLIST_PREFIX + blacklistId, RevokedTokenFilter.SEQUENCE_KEY);
+        String[] args = {
+            userId.toString(), String.valueOf(ttlSeconds),
+            RevokedTokenFilter.CHANNEL, RevokedTokenFilter.encodedDigest(blacklistId)
+        };
+        if (!batchEnabled) {
+            redisTemplate.execute(BLACKLIST_SCRIPT, keys, (Object[]) args);
+            return;
+        }
 
-    public boolean isTokenBlacklisted(String token) {
-        String tokenKey = TOKEN_BLACKLIST_PREFIX + token;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(tokenKey));
+        PendingRevocation revocation = new PendingRevocation(keys, args);
+        pending.add(revocation);
+        try {
+            revocation.result.get(batchTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Revogação do token interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro ao revogar o token", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Tempo esgotado ao revogar o token", e);
+        }
     }
 
-    public void revokeAllUserTokens(UUID userId) {
-        String userTokensKey = USER_TOKENS_PREFIX + userId.toString();
-        
-        // Obtém todos os tokens do usuário antes de excluir a chave
-        Set<String> userTokens = redisTemplate.opsForSet().members(userTokensKey);
-        
-        // Verifica se a lista de tokens não é nula antes de iterá-la
-        if (userTokens != null && !userTokens.isEmpty()) {
-            // Revoga cada token do usuário
-            userTokens.forEach(token -> {
-                String tokenKey = TOKEN_BLACKLIST_PREFIX + token;
-                redisTemplate.opsForValue().set(tokenKey, userId.toString(), blacklistExpiration, TimeUnit.SECONDS);
-            });
+    // Espera a primeira revogação e leva junto as que chegaram enquanto o lote anterior era gravado:
+    // sem espera artificial quando há pouca carga e um único round trip por lote quando há muita
+    private void flushLoop() {
+        List<PendingRevocation> batch = new ArrayList<>(batchMaxSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            pending.drainTo(batch, batchMaxSize - 1);
+            try {
+                byte[] script = BLACKLIST_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (PendingRevocation revocation : batch) {
+                        connection.scriptingCommands().eval(script, ReturnType.INTEGER, 2, revocation.keysAndArgs);
+                    }
+                    return null;
+                });
+                batch.forEach(revocation -> revocation.result.complete(null));
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao gravar lote de revogações: " + e.getMessage());
+                batch.forEach(revocation -> revocation.result.completeExceptionally(e));
+            }
+            batch.clear();
         }
-        
-        // Agora remove a lista de tokens do usuário
-        redisTemplate.delete(userTokensKey);
     }
 
+
+    public boolean isTokenBlacklisted(String blacklistId) {
+        // Negativo do filtro local: o token com certeza não foi revogado
+        if (!revokedTokenFilter.mightBeRevoked(blacklistId)) {
+            return false;
+        }
+        String tokenKey = TOKEN_BLACKLIST_PREFIX + blacklistId;
+        return Boolean.TRUE.equals(redisTemplate.hasKey(tokenKey));
+    }
+
+    private static final class PendingRevocation {
+        private final byte[][] keysAndArgs;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private PendingRevocation(List<String> keys, String[] args) {
+            keysAndArgs = new byte[keys.size() + args.length][];
+            int i = 0;
+            for (String key : keys) {
+                keysAndArgs[i++] = key.getBytes(StandardCharsets.UTF_8);
+            }
+            for (String arg : args) {
+                keysAndArgs[i++] = arg.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+    }
 }
\ No newline at end of file
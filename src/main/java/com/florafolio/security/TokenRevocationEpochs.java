@@ -0,0 +1,107 @@
+package com.florafolio.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+
+// Revogação em massa por época: tokens do usuário emitidos até o instante T (em milissegundos) deixam de valer
+// (logout de todas as sessões). A época é gravada uma vez no Redis e mantida em cache local; o pub/sub atualiza
+// as demais instâncias e o TTL limita a defasagem.
+@Component
+public class TokenRevocationEpochs {
+
+    private static final String USER_EPOCH_PREFIX = "token:revoked-before:user:";
+    private static final String CHANNEL = "token:revoked-before";
+
+    // KEYS[1] = época do usuário; ARGV[1] = instante, ARGV[2] = TTL, ARGV[3] = canal, ARGV[4] = mensagem
+    private static final RedisScript<Long> REVOKE_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) " +
+        "return redis.call('PUBLISH', ARGV[3], ARGV[4])",
+        Long.class);
+
+    // Após o tempo de vida máximo de um token, nenhum token anterior à época continua válido
+    @Value("${jwt.expiration}")
+    private long tokenLifetime;
+
+    @Value("${jwt.revocation-epoch-cache.ttl:30}")
+    private long cacheTtlSeconds;
+
+    @Value("${jwt.revocation-epoch-cache.max-size:100000}")
+    private long cacheMaxSize;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    // 0 indica que o usuário não tem época de revogação
+    private Cache<UUID, Long> userEpochs;
+
+    @PostConstruct
+    public void init() {
+        userEpochs = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+            .build();
+        listenerContainer.addMessageListener(
+            (message, pattern) -> onRevocation(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(CHANNEL));
+    }
+
+    // O token foi emitido até a época do seu usuário. O "iat" do JWT só tem segundos; com ele, um login feito
+    // logo depois da revogação, no mesmo segundo, seria recusado. Por isso a comparação usa a emissão em ms.
+    public boolean isRevoked(VerifiedToken verifiedToken) {
+        long issuedAtMillis = verifiedToken.getIssuedAtMillis();
+        if (issuedAtMillis <= 0) {
+            return true;
+        }
+        UUID userId = verifiedToken.getUserId();
+        return userId != null && issuedAtMillis <= userEpoch(userId);
+    }
+
+    // Invalida todos os tokens já emitidos para o usuário até este milissegundo
+    public void revokeUser(UUID userId) {
+        long epoch = System.currentTimeMillis();
+        userEpochs.put(userId, epoch);
+        redisTemplate.execute(REVOKE_SCRIPT, Arrays.asList(USER_EPOCH_PREFIX + userId),
+                String.valueOf(epoch), String.valueOf(tokenLifetime), CHANNEL, userId + ":" + epoch);
+    }
+
+    // Leitura do Redis fora do cache (sem prender virtual threads no bloco sincronizado do carregamento);
+    // o merge com max preserva uma época mais nova recebida via pub/sub durante a leitura
+    private long userEpoch(UUID userId) {
+        Long cached = userEpochs.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        String value = redisTemplate.opsForValue().get(USER_EPOCH_PREFIX + userId);
+        long epoch = value == null ? 0L : Long.parseLong(value);
+        return userEpochs.asMap().merge(userId, epoch, Math::max);
+    }
+
+    // Mensagem "usuário:época"
+    private void onRevocation(String body) {
+        int separator = body.indexOf(':');
+        try {
+            UUID userId = UUID.fromString(body.substring(0, separator));
+            long epoch = Long.parseLong(body.substring(separator + 1));
+            userEpochs.asMap().merge(userId, epoch, Math::max);
+        } catch (RuntimeException e) {
+            System.err.println("Mensagem de revogação por época inválida: " + body);
+        }
+    }
+}
\ No newline at end of file
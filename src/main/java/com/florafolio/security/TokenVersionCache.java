@@ -0,0 +1,69 @@
+package com.florafolio.security;
+
+import com.florafolio.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versão atual dos tokens de cada usuário, em cache local com TTL curto.
+// Usada no modo stateless para recusar tokens de usuários excluídos ou com versão antiga;
+// a remoção local é imediata e nas demais instâncias a defasagem fica limitada ao TTL.
+@Component
+public class TokenVersionCache {
+
+    // Marca usuários inexistentes (o Caffeine não armazena null)
+    private static final long DELETED = -1L;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.token-version-cache.ttl:30}")
+    private long ttlSeconds;
+
+    @Value("${jwt.token-version-cache.max-size:100000}")
+    private long maxSize;
+
+    private Cache<UUID, Long> versions;
+    // Incrementado a cada remoção; leituras do banco iniciadas antes dela não são gravadas no cache
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        versions = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    // Versão atual dos tokens do usuário, ou null se ele não existe mais
+    // A consulta ao banco fica fora do cache: o carregamento do Caffeine roda dentro de um bloco sincronizado
+    // do ConcurrentHashMap, o que prenderia a virtual thread à sua thread de plataforma durante o I/O
+    public Long getVersion(UUID userId) {
+        Long version = versions.getIfPresent(userId);
+        if (version == null) {
+            long loadGeneration = generation.get();
+            Long current = userRepository.findTokenVersionById(userId);
+            version = current == null ? DELETED : current;
+            if (generation.get() == loadGeneration) {
+                versions.put(userId, version);
+                // Uma remoção entre a conferência e o put pode ter rodado antes dele: confere de novo e desfaz
+                if (generation.get() != loadGeneration) {
+                    versions.invalidate(userId);
+                }
+            }
+        }
+        return version == DELETED ? null : version;
+    }
+
+    public void evict(UUID userId) {
+        generation.incrementAndGet();
+        versions.invalidate(userId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.florafolio.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+// Token JWT já verificado (assinatura e expiração) uma única vez, com as claims prontas para uso
+public class VerifiedToken {
+    private static final ObjectMapper PAYLOAD_READER = new ObjectMapper();
+
+    private final String token;
+    private final Claims claims;
+    private final UUID userId;
+
+    public VerifiedToken(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+        String userIdStr = claims.get("userId", String.class);
+        this.userId = userIdStr == null ? null : UUID.fromString(userIdStr);
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getUsername() {
+        return claims.getSubject();
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return claims.get("role", String.class);
+    }
+
+    // Versão dos tokens do usuário na emissão (tokens anteriores à claim "ver" contam como 0)
+    public long getTokenVersion() {
+        Long version = claims.get("ver", Long.class);
+        return version == null ? 0L : version;
+    }
+
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    // Emissão em milissegundos (claim "iatms"); tokens anteriores a ela contam do início do segundo do "iat".
+    // 0 se o token não tem data de emissão.
+    public long getIssuedAtMillis() {
+        Long millis = claims.get("iatms", Long.class);
+        if (millis != null) {
+            return millis;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null ? 0L : issuedAt.getTime();
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    // Identificador usado na blacklist: o "jti" do token ou, em tokens emitidos antes dele, o próprio token,
+    // que é a chave gravada pelas revogações anteriores ao jti (elas continuam valendo até o token expirar)
+    public String getBlacklistId() {
+        String jti = claims.getId();
+        return jti != null ? jti : token;
+    }
+
+    // O mesmo identificador lido do payload SEM verificar a assinatura, para começar a consulta à blacklist
+    // em paralelo com a verificação. Só vale se a verificação depois confirmar o token; null se malformado.
+    public static String peekBlacklistId(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            JsonNode payload = PAYLOAD_READER.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode jti = payload.get("jti");
+            return jti != null && jti.isTextual() ? jti.asText() : token;
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    // Segundos até o token expirar (no mínimo 1)
+    public long getRemainingSeconds() {
+        long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return Math.max(1, (remainingMs + 999) / 1000);
+    }
+}
\ No newline at end of file
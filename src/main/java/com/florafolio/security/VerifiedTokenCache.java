@@ -0,0 +1,89 @@
+package com.florafolio.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Cache local de tokens já verificados, indexado pelo SHA-256 do token.
+// Cada entrada expira no "exp" do próprio token, então nunca devolve um token vencido;
+// revogações removem a entrada na hora (a lista de revogação continua sendo consultada a cada requisição).
+@Component
+public class VerifiedTokenCache {
+
+    @Value("${jwt.verified-token-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.verified-token-cache.max-size:100000}")
+    private long maxSize;
+
+    private Cache<String, VerifiedToken> tokens;
+
+    @PostConstruct
+    public void init() {
+        tokens = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                    return remainingNanos(value);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return remainingNanos(value);
+                }
+
+                @Override
+                public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        return tokens.getIfPresent(digest(token));
+    }
+
+    public void put(VerifiedToken verifiedToken) {
+        if (enabled && verifiedToken.getExpiration() != null) {
+            tokens.put(digest(verifiedToken.getToken()), verifiedToken);
+        }
+    }
+
+    public void evict(String token) {
+        tokens.invalidate(digest(token));
+    }
+
+    // Remove todos os tokens do usuário (revogação geral, rara: percorre o cache)
+    public void evictUser(UUID userId) {
+        tokens.asMap().values().removeIf(verifiedToken -> userId.equals(verifiedToken.getUserId()));
+    }
+
+    private static long remainingNanos(VerifiedToken verifiedToken) {
+        long remainingMs = verifiedToken.getExpiration().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
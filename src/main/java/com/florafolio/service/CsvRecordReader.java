@@ -0,0 +1,75 @@
+package com.florafolio.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Leitor de registros CSV (RFC 4180): separador vírgula, campos entre aspas com vírgulas, quebras de linha e "" escapado
+class CsvRecordReader {
+    private final BufferedReader reader;
+    private long lineNumber;
+    private long recordLine;
+
+    CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    // Linha em que começa o último registro lido (a partir de 1)
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    // Próximo registro, ou null no fim da entrada
+    List<String> next() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        recordLine = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Campo entre aspas continua na próxima linha
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Aspas não fechadas no registro da linha " + recordLine);
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,303 @@
+package com.florafolio.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.florafolio.model.Plant;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Cache read-through no Redis para plantas por ID e resultados de busca.
+// Toda escrita incrementa uma versão; um leitor só grava no cache se a versão não mudou desde que
+// leu o banco, evitando que um resultado calculado antes do commit sobrescreva a invalidação.
+// Plantas por ID também ficam em um near cache local (Caffeine, W-TinyLFU), invalidado em todas as
+// instâncias via pub/sub; o TTL local limita a defasagem caso alguma mensagem se perca.
+@Service
+public class PlantCacheService {
+
+    private static final String PLANT_KEY_PREFIX = "plant:id:";
+    private static final String SEARCH_KEY_PREFIX = "plant:search:";
+    private static final String VERSION_KEY = "plant:cache:version";
+    // Também consumido por PlantSearchSync para manter índice e sugestões em dia entre instâncias
+    public static final String INVALIDATION_CHANNEL = "plant:cache:invalidate";
+    public static final String INVALIDATE_ALL = "*";
+    private static final int MAX_CACHED_TERM_LENGTH = 100;
+    private static final TypeReference<List<UUID>> ID_LIST = new TypeReference<>() {};
+
+    private static final RedisScript<Long> FILL_PLANT_SCRIPT = new DefaultRedisScript<>(
+        "if (redis.call('GET', KEYS[1]) or '0') == ARGV[1] then " +
+        "  redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3]) " +
+        "  return 1 " +
+        "end " +
+        "return 0",
+        Long.class);
+
+    // Cada busca tem a sua chave, com a versão no nome e TTL próprio: uma invalidação só incrementa a versão e as
+    // chaves antigas deixam de ser lidas e expiram sozinhas. Lê a versão e a chave da busca em uma ida ao Redis.
+    // KEYS[1] = versão; ARGV[1] = prefixo, ARGV[2] = modo:termo. Retorna {versão, IDs em JSON ou ''}
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SEARCH_SCRIPT = new DefaultRedisScript<>(
+        "local version = redis.call('GET', KEYS[1]) or '0' " +
+        "return {version, redis.call('GET', ARGV[1] .. version .. ':' .. ARGV[2]) or ''}",
+        List.class);
+
+    // KEYS[1] = versão, KEYS[2] (opcional) = planta; ARGV[1] = canal, ARGV[2] = mensagem
+    private static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+        "local version = redis.call('INCR', KEYS[1]) " +
+        "if KEYS[2] then redis.call('DEL', KEYS[2]) end " +
+        "redis.call('PUBLISH', ARGV[1], ARGV[2]) " +
+        "return version",
+        Long.class);
+
+    @Value("${plants.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${plants.cache.ttl:600}")
+    private long ttlSeconds;
+
+    @Value("${plants.cache.search-ttl:300}")
+    private long searchTtlSeconds;
+
+    @Value("${plants.cache.near.max-bytes:67108864}")
+    private long nearMaxBytes;
+
+    @Value("${plants.cache.near.ttl:30}")
+    private long nearTtlSeconds;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    private Cache<UUID, Plant> nearCache;
+    // Incrementado a cada invalidação local; leituras iniciadas antes dela não populam o near cache
+    private final AtomicLong nearGeneration = new AtomicLong();
+
+    // Serialização compacta: campos nulos não são gravados
+    private ObjectMapper cacheMapper;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cacheMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        nearCache = Caffeine.newBuilder()
+            .maximumWeight(nearMaxBytes)
+            .weigher((UUID id, Plant plant) -> estimateSize(plant))
+            .expireAfterWrite(Duration.ofSeconds(nearTtlSeconds))
+            .recordStats()
+            .build();
+        if (enabled) {
+            listenerContainer.addMessageListener(
+                (message, pattern) -> evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+        }
+    }
+
+    // Planta por ID: near cache, depois Redis e, em caso de ausência, o banco (loader)
+    public Plant getPlant(UUID id, Supplier<Plant> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Plant near = nearCache.getIfPresent(id);
+        if (near != null) {
+            return near;
+        }
+        long generation = nearGeneration.get();
+
+        String key = PLANT_KEY_PREFIX + id;
+        String version;
+        try {
+            // Uma ida ao Redis traz a planta e, para o caso de ausência, a versão atual
+            List<String> values = redisTemplate.opsForValue().multiGet(Arrays.asList(key, VERSION_KEY));
+            String cached = values == null ? null : values.get(0);
+            if (cached != null) {
+                hits.incrementAndGet();
+                Plant plant = cacheMapper.readValue(cached, Plant.class);
+                putNear(id, plant, generation);
+                return plant;
+            }
+            version = values == null || values.get(1) == null ? "0" : values.get(1);
+        } catch (RuntimeException | JsonProcessingException e) {
+            errors.incrementAndGet();
+            System.err.println("Erro ao ler planta do cache: " + e.getMessage());
+            return loader.get();
+        }
+
+        misses.incrementAndGet();
+        Plant plant = loader.get();
+        if (plant != null) {
+            try {
+                Long stored = redisTemplate.execute(FILL_PLANT_SCRIPT, Arrays.asList(VERSION_KEY, key),
+                        version, cacheMapper.writeValueAsString(plant), String.valueOf(ttlSeconds));
+                if (Long.valueOf(1L).equals(stored)) {
+                    putNear(id, plant, generation);
+                }
+            } catch (RuntimeException | JsonProcessingException e) {
+                errors.incrementAndGet();
+                System.err.println("Erro ao gravar planta no cache: " + e.getMessage());
+            }
+        }
+        return plant;
+    }
+
+    // Resultado de busca pelo modo (popular, científico ou ambos) e termo já normalizado.
+    // Só os IDs (no máximo plants.search.max-results) ficam no cache; as plantas vêm do resolver, pela chave primária.
+    public List<Plant> getSearch(String mode, String normalizedTerm, Supplier<List<Plant>> loader,
+                                 Function<List<UUID>, List<Plant>> resolver) {
+        if (!enabled || normalizedTerm.length() > MAX_CACHED_TERM_LENGTH) {
+            return loader.get();
+        }
+        String field = mode + ":" + normalizedTerm;
+        String version;
+        try {
+            List<?> values = redisTemplate.execute(READ_SEARCH_SCRIPT, Arrays.asList(VERSION_KEY),
+                    SEARCH_KEY_PREFIX, field);
+            version = values == null ? "0" : String.valueOf(values.get(0));
+            String cached = values == null ? "" : String.valueOf(values.get(1));
+            if (!cached.isEmpty()) {
+                hits.incrementAndGet();
+                return resolver.apply(cacheMapper.readValue(cached, ID_LIST));
+            }
+        } catch (RuntimeException | JsonProcessingException e) {
+            errors.incrementAndGet();
+            System.err.println("Erro ao ler busca do cache: " + e.getMessage());
+            return loader.get();
+        }
+
+        misses.incrementAndGet();
+        List<Plant> plants = loader.get();
+        List<UUID> ids = new ArrayList<>(plants.size());
+        for (Plant plant : plants) {
+            ids.add(plant.getId());
+        }
+        try {
+            // Gravado sob a versão lida antes do banco: se houve escrita no meio, ninguém mais lê esta chave
+            redisTemplate.opsForValue().set(SEARCH_KEY_PREFIX + version + ":" + field,
+                    cacheMapper.writeValueAsString(ids), Duration.ofSeconds(searchTtlSeconds));
+        } catch (RuntimeException | JsonProcessingException e) {
+            errors.incrementAndGet();
+            System.err.println("Erro ao gravar busca no cache: " + e.getMessage());
+        }
+        return plants;
+    }
+
+    // Invalida todas as buscas e, se informado, a planta alterada, avisando as demais instâncias (chamar após o commit)
+    public void invalidate(UUID plantId) {
+        invalidate(plantId == null ? INVALIDATE_ALL : plantId.toString(), plantId);
+    }
+
+    // Criação em lote: invalida as buscas e avisa as demais instâncias com os IDs inseridos, separados por vírgula,
+    // para que atualizem só essas plantas no índice e nas sugestões (chamar após o commit)
+    public void invalidate(List<UUID> plantIds) {
+        if (plantIds.isEmpty()) {
+            return;
+        }
+        StringJoiner message = new StringJoiner(",");
+        for (UUID plantId : plantIds) {
+            message.add(plantId.toString());
+        }
+        invalidate(message.toString(), null);
+    }
+
+    private void invalidate(String message, UUID plantId) {
+        if (!enabled) {
+            // Sem cache, a mensagem ainda é publicada para o índice de busca e as sugestões das demais instâncias
+            try {
+                redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao publicar a alteração de plantas: " + e.getMessage());
+            }
+            return;
+        }
+        evictLocal(message);
+        try {
+            if (plantId != null) {
+                redisTemplate.execute(INVALIDATE_SCRIPT, Arrays.asList(VERSION_KEY, PLANT_KEY_PREFIX + plantId),
+                        INVALIDATION_CHANNEL, message);
+            } else {
+                redisTemplate.execute(INVALIDATE_SCRIPT, Arrays.asList(VERSION_KEY),
+                        INVALIDATION_CHANNEL, message);
+            }
+        } catch (RuntimeException e) {
+            errors.incrementAndGet();
+            System.err.println("Erro ao invalidar o cache de plantas: " + e.getMessage());
+        }
+    }
+
+    // Remove do near cache as plantas da mensagem ("*" remove todas). A geração muda antes da remoção para que
+    // uma leitura em andamento não devolva ao near cache a versão antiga.
+    private void evictLocal(String message) {
+        nearGeneration.incrementAndGet();
+        if (INVALIDATE_ALL.equals(message)) {
+            nearCache.invalidateAll();
+            return;
+        }
+        try {
+            for (String id : message.split(",")) {
+                nearCache.invalidate(UUID.fromString(id));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Mensagem de invalidação inválida: " + message);
+        }
+    }
+
+    private void putNear(UUID id, Plant plant, long generation) {
+        if (nearGeneration.get() == generation) {
+            nearCache.put(id, plant);
+        }
+    }
+
+    // Estimativa do tamanho em memória da planta (cabeçalhos de objeto + 2 bytes por caractere)
+    private static int estimateSize(Plant plant) {
+        int size = 128;
+        for (String value : new String[] {
+                plant.getPopularName(), plant.getScientificName(), plant.getDescription(), plant.getFamily(),
+                plant.getOrigin(), plant.getCareInstructions(), plant.getImageUrl()}) {
+            if (value != null) {
+                size += 40 + 2 * value.length();
+            }
+        }
+        return size;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("errors", errors.get());
+        stats.put("nearHits", nearCache.stats().hitCount());
+        stats.put("nearMisses", nearCache.stats().missCount());
+        stats.put("nearSize", nearCache.estimatedSize());
+        return stats;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.florafolio.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// Token de continuação opaco da listagem paginada: guarda a ordenação e a última chave vista
+public class PlantCursor {
+    // Menor UUID possível, usado como ponto de partida da primeira página
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final PlantSort sort;
+    private final String lastKey;
+    private final UUID lastId;
+
+    public PlantCursor(PlantSort sort, String lastKey, UUID lastId) {
+        this.sort = sort;
+        this.lastKey = lastKey;
+        this.lastId = lastId;
+    }
+
+    // Cursor da primeira página (as colunas ordenáveis são NOT NULL, então "" precede todos os valores)
+    public static PlantCursor first(PlantSort sort) {
+        return new PlantCursor(sort, "", FIRST_ID);
+    }
+
+    public String encode() {
+        String raw = sort.getParam() + "|" + lastId + "|" + lastKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PlantCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new PlantCursor(PlantSort.fromParam(parts[0]), parts[2], UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public PlantSort getSort() {
+        return sort;
+    }
+
+    public String getLastKey() {
+        return lastKey;
+    }
+
+    public UUID getLastId() {
+        return lastId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.florafolio.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Resultado de uma importação: totais e os erros por linha (limitados para não crescer sem controle)
+public class PlantImportReport {
+    private final int maxErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long imported;
+    private long failed;
+    private String readError;
+
+    public PlantImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    void addImported(int count) {
+        imported += count;
+    }
+
+    void addError(long line, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    // Falha de leitura que interrompeu a importação; as linhas lidas antes dela já foram processadas
+    void setReadError(String readError) {
+        this.readError = readError;
+    }
+
+    public String getReadError() {
+        return readError;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    // Indica se houve mais erros do que os listados
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
\ No newline at end of file
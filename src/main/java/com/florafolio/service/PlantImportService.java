@@ -0,0 +1,231 @@
+package com.florafolio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.florafolio.dto.plant.CreatePlantRequestDTO;
+import com.florafolio.model.Plant;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+// Importação em massa de plantas a partir de CSV ou NDJSON, lida em streaming.
+// Cada linha é validada ao ser lida; as válidas são gravadas em lotes (um commit por lote, inserts em batch JDBC)
+// e linhas inválidas entram no relatório sem interromper a importação. Um lote que falha no banco é regravado
+// linha a linha, para que só as linhas com problema fiquem de fora.
+@Service
+public class PlantImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    // Colunas aceitas no cabeçalho do CSV
+    private static final List<String> CSV_COLUMNS = List.of(
+        "popularName", "scientificName", "description", "family", "origin", "careInstructions", "imageUrl");
+
+    @Autowired
+    private PlantService plantService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${plants.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${plants.import.max-errors:1000}")
+    private int maxErrors;
+
+    // Uma falha de leitura no meio do arquivo (conexão interrompida, aspas não fechadas) não descarta o que já foi
+    // lido: as linhas anteriores são gravadas e o erro fica no relatório (getReadError)
+    public PlantImportReport importPlants(InputStream input, Format format) {
+        PlantImportReport report = new PlantImportReport(maxErrors);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Chunk chunk = new Chunk();
+
+        try {
+            if (format == Format.CSV) {
+                CsvRecordReader csv = new CsvRecordReader(reader);
+                List<String> header = csv.next();
+                if (header == null) {
+                    return report;
+                }
+                int[] columns = csvColumns(header);
+                List<String> record;
+                while ((record = csv.next()) != null) {
+                    if (record.size() == 1 && record.get(0).isBlank()) {
+                        continue;
+                    }
+                    if (record.size() != columns.length) {
+                        report.addError(csv.getRecordLine(), "Quantidade de colunas diferente do cabeçalho");
+                        continue;
+                    }
+                    accept(fromCsv(record, columns), csv.getRecordLine(), chunk, report);
+                }
+            } else {
+                String text;
+                long line = 0;
+                while ((text = reader.readLine()) != null) {
+                    line++;
+                    if (text.isBlank()) {
+                        continue;
+                    }
+                    CreatePlantRequestDTO dto;
+                    try {
+                        dto = objectMapper.readValue(text, CreatePlantRequestDTO.class);
+                    } catch (JsonProcessingException e) {
+                        report.addError(line, "JSON inválido: " + e.getOriginalMessage());
+                        continue;
+                    }
+                    if (dto == null) {
+                        report.addError(line, "A linha deve conter um objeto JSON");
+                        continue;
+                    }
+                    accept(dto, line, chunk, report);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler o arquivo de importação de plantas: " + e.getMessage());
+            report.setReadError(e.getMessage());
+        }
+
+        flush(chunk, report);
+        return report;
+    }
+
+    // Valida a linha e a adiciona ao lote, gravando o lote quando ele atinge o tamanho configurado
+    private void accept(CreatePlantRequestDTO dto, long line, Chunk chunk, PlantImportReport report) {
+        Set<ConstraintViolation<CreatePlantRequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            StringJoiner message = new StringJoiner("; ");
+            for (ConstraintViolation<CreatePlantRequestDTO> violation : violations) {
+                message.add(violation.getMessage());
+            }
+            report.addError(line, message.toString());
+            return;
+        }
+        chunk.rows.add(dto);
+        chunk.lines.add(line);
+        if (chunk.rows.size() >= chunkSize) {
+            flush(chunk, report);
+        }
+    }
+
+    private void flush(Chunk chunk, PlantImportReport report) {
+        if (chunk.rows.isEmpty()) {
+            return;
+        }
+        List<Plant> plants = new ArrayList<>(chunk.rows.size());
+        for (CreatePlantRequestDTO dto : chunk.rows) {
+            plants.add(toPlant(dto));
+        }
+        try {
+            plantService.createPlants(plants);
+            report.addImported(plants.size());
+        } catch (DataAccessException | TransactionException e) {
+            // O lote inteiro foi desfeito: as linhas são gravadas uma a uma e só as que falham entram no relatório.
+            // As entidades do lote podem ter ficado com ID e versão atribuídos, por isso são recriadas.
+            System.err.println("Erro ao gravar lote da importação de plantas, gravando linha a linha: "
+                    + e.getMessage());
+            for (int i = 0; i < chunk.rows.size(); i++) {
+                try {
+                    plantService.createPlant(toPlant(chunk.rows.get(i)));
+                    report.addImported(1);
+                } catch (DataAccessException | TransactionException rowError) {
+                    report.addError(chunk.lines.get(i),
+                            "Falha ao gravar a linha: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        chunk.rows = new ArrayList<>();
+        chunk.lines = new ArrayList<>();
+    }
+
+    private Plant toPlant(CreatePlantRequestDTO dto) {
+        return new Plant(
+            null,
+            dto.getPopularName(),
+            dto.getScientificName(),
+            dto.getDescription(),
+            dto.getFamily(),
+            dto.getOrigin(),
+            dto.getCareInstructions(),
+            dto.getImageUrl()
+        );
+    }
+
+    // Posição de cada coluna do cabeçalho em CSV_COLUMNS
+    private int[] csvColumns(List<String> header) {
+        int[] columns = new int[header.size()];
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).strip();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns[i] = CSV_COLUMNS.indexOf(name);
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Coluna desconhecida no CSV: " + name);
+            }
+            names.add(name);
+        }
+        if (!names.contains("popularName") || !names.contains("scientificName")) {
+            throw new IllegalArgumentException("O cabeçalho do CSV deve conter popularName e scientificName");
+        }
+        return columns;
+    }
+
+    private CreatePlantRequestDTO fromCsv(List<String> record, int[] columns) {
+        CreatePlantRequestDTO dto = new CreatePlantRequestDTO();
+        for (int i = 0; i < columns.length; i++) {
+            String value = record.get(i).isEmpty() ? null : record.get(i);
+            switch (CSV_COLUMNS.get(columns[i])) {
+                case "popularName":
+                    dto.setPopularName(value);
+                    break;
+                case "scientificName":
+                    dto.setScientificName(value);
+                    break;
+                case "description":
+                    dto.setDescription(value);
+                    break;
+                case "family":
+                    dto.setFamily(value);
+                    break;
+                case "origin":
+                    dto.setOrigin(value);
+                    break;
+                case "careInstructions":
+                    dto.setCareInstructions(value);
+                    break;
+                default:
+                    dto.setImageUrl(value);
+                    break;
+            }
+        }
+        return dto;
+    }
+
+    // Linhas aguardando gravação e seus números no arquivo, para o relatório de erros
+    private static final class Chunk {
+        private List<CreatePlantRequestDTO> rows = new ArrayList<>();
+        private List<Long> lines = new ArrayList<>();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.florafolio.service;
+
+import java.util.List;
+
+// Página da listagem de plantas (entidades ou resumos) com o cursor da próxima página (null na última)
+public class PlantPage<T> {
+    private final List<T> plants;
+    private final String nextCursor;
+
+    public PlantPage(List<T> plants, String nextCursor) {
+        this.plants = plants;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getPlants() {
+        return plants;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.florafolio.service;
+
+import com.florafolio.search.PlantSearchIndex;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Modos de busca por nome: a chave usada no cache e os campos consultados no índice em memória
+public enum PlantSearchMode {
+    POPULAR("popular", EnumSet.of(PlantSearchIndex.Field.POPULAR_NAME)),
+    SCIENTIFIC("scientific", EnumSet.of(PlantSearchIndex.Field.SCIENTIFIC_NAME)),
+    NAME("name", EnumSet.of(PlantSearchIndex.Field.POPULAR_NAME, PlantSearchIndex.Field.SCIENTIFIC_NAME));
+
+    private final String cacheKey;
+    private final Set<PlantSearchIndex.Field> indexFields;
+
+    PlantSearchMode(String cacheKey, Set<PlantSearchIndex.Field> indexFields) {
+        this.cacheKey = cacheKey;
+        this.indexFields = indexFields;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public Set<PlantSearchIndex.Field> getIndexFields() {
+        return indexFields;
+    }
+}
\ No newline at end of file
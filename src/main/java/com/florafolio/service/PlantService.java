@@ -2,22 +2,76 @@ package com.florafolio.service;
 
 import com.florafolio.model.Plant;
 import com.florafolio.repository.PlantRepository;
+import com.florafolio.repository.PlantSummary;
+import com.florafolio.search.PlantSearchIndex;
+import com.florafolio.search.PlantSuggester;
+import com.florafolio.search.TextNormalizer;
 import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class PlantService {
+    // Tamanho mínimo do termo de busca (um trigrama)
+    private static final int MIN_SEARCH_TERM_LENGTH = 3;
+    
     @Autowired
     private PlantRepository plantRepository;
     
+    @Autowired
+    private PlantSearchIndex plantSearchIndex;
+    
+    @Autowired
+    private PlantSuggester plantSuggester;
+    
+    @Autowired
+    private PlantCacheService plantCacheService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${plants.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${plants.page.max-size:200}")
+    private int maxPageSize;
+    
+    @Value("${plants.export.batch-size:500}")
+    private int exportBatchSize;
+    
+    @Value("${plants.search.max-results:100}")
+    private int searchMaxResults;
+    
+    @Value("${plants.suggest.max-results:20}")
+    private int suggestMaxResults;
+    
     @PostConstruct
     @Transactional
     public void init() {
+        // Um lote menor que 1 faria o módulo da exportação dividir por zero
+        exportBatchSize = Math.max(1, exportBatchSize);
+        
         // Adiciona algumas plantas para teste se o banco estiver vazio
         if (plantRepository.count() == 0) {
             // Planta 1
@@ -56,41 +110,282 @@ public class PlantService {
                 "https://example.com/orquidea.jpg"
             );
             
+            Instant now = Instant.now();
+            plant1.setUpdatedAt(now);
+            plant2.setUpdatedAt(now);
+            plant3.setUpdatedAt(now);
+            
             plantRepository.save(plant1);
             plantRepository.save(plant2);
             plantRepository.save(plant3);
         }
     }
     
-    // Buscar todas as plantas
-    public List<Plant> getAllPlants() {
-        return plantRepository.findAll();
+    // Buscar uma página de plantas a partir do cursor (paginação por chave, sem OFFSET)
+    public PlantPage<Plant> getPlantsPage(String sortParam, String cursorToken, Integer size) {
+        int pageSize = resolvePageSize(size);
+        PlantCursor cursor = resolveCursor(sortParam, cursorToken);
+        
+        // Busca um registro a mais para saber se existe próxima página
+        List<Plant> plants = findPageAfter(cursor, PageRequest.of(0, pageSize + 1));
+        return toPage(plants, pageSize,
+            last -> new PlantCursor(cursor.getSort(), cursor.getSort().keyOf(last), last.getId()));
+    }
+    
+    // Mesma paginação, lendo apenas as colunas do resumo (campos solicitados via "fields")
+    public PlantPage<PlantSummary> getPlantSummariesPage(String sortParam, String cursorToken, Integer size) {
+        int pageSize = resolvePageSize(size);
+        PlantCursor cursor = resolveCursor(sortParam, cursorToken);
+        
+        List<PlantSummary> summaries = findSummaryPageAfter(cursor, PageRequest.of(0, pageSize + 1));
+        return toPage(summaries, pageSize,
+            last -> new PlantCursor(cursor.getSort(), cursor.getSort().keyOf(last), last.getId()));
+    }
+    
+    private int resolvePageSize(Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+        }
+        return pageSize;
+    }
+    
+    private PlantCursor resolveCursor(String sortParam, String cursorToken) {
+        if (cursorToken == null || cursorToken.isEmpty()) {
+            return PlantCursor.first(PlantSort.fromParam(sortParam));
+        }
+        PlantCursor cursor = PlantCursor.decode(cursorToken);
+        if (sortParam != null && !sortParam.isEmpty() && cursor.getSort() != PlantSort.fromParam(sortParam)) {
+            throw new IllegalArgumentException("O cursor não corresponde à ordenação informada");
+        }
+        return cursor;
+    }
+    
+    // Corta o registro excedente e gera o cursor a partir do último item da página
+    private <T> PlantPage<T> toPage(List<T> rows, int pageSize, Function<T, PlantCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new PlantPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new PlantPage<>(page, cursorOf.apply(page.get(pageSize - 1)).encode());
+    }
+    
+    private List<Plant> findPageAfter(PlantCursor cursor, Pageable pageable) {
+        switch (cursor.getSort()) {
+            case POPULAR_NAME:
+                return plantRepository.findPageByPopularName(cursor.getLastKey(), cursor.getLastId(), pageable);
+            case SCIENTIFIC_NAME:
+                return plantRepository.findPageByScientificName(cursor.getLastKey(), cursor.getLastId(), pageable);
+            default:
+                return plantRepository.findByIdGreaterThanOrderByIdAsc(cursor.getLastId(), pageable);
+        }
+    }
+    
+    private List<PlantSummary> findSummaryPageAfter(PlantCursor cursor, Pageable pageable) {
+        switch (cursor.getSort()) {
+            case POPULAR_NAME:
+                return plantRepository.findSummaryPageByPopularName(cursor.getLastKey(), cursor.getLastId(), pageable);
+            case SCIENTIFIC_NAME:
+                return plantRepository.findSummaryPageByScientificName(cursor.getLastKey(), cursor.getLastId(),
+                                                                       pageable);
+            default:
+                return plantRepository.findSummaryPageById(cursor.getLastId(), pageable);
+        }
+    }
+    
+    // Percorrer todas as plantas sem materializar a tabela, limpando o contexto de persistência a cada lote
+    @Transactional(readOnly = true)
+    public long streamAllPlants(Consumer<Plant> consumer) {
+        long count = 0;
+        try (Stream<Plant> plants = plantRepository.streamAll()) {
+            Iterator<Plant> iterator = plants.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++count % exportBatchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
     }
     
     // Buscar planta por ID
     public Plant getPlantById(UUID id) {
-        return plantRepository.findById(id).orElse(null);
+        return plantCacheService.getPlant(id, () -> plantRepository.findById(id).orElse(null));
     }
     
     // Buscar plantas por nome popular
     public List<Plant> getPlantsByPopularName(String popularName) {
-        return plantRepository.findByPopularNameContainingIgnoreCase(popularName);
+        return searchPlants(PlantSearchMode.POPULAR, popularName);
     }
     
     // Buscar plantas por nome científico
     public List<Plant> getPlantsByScientificName(String scientificName) {
-        return plantRepository.findByScientificNameContainingIgnoreCase(scientificName);
+        return searchPlants(PlantSearchMode.SCIENTIFIC, scientificName);
     }
     
     // Buscar plantas por nome popular ou científico
     public List<Plant> searchPlants(String term) {
-        return plantRepository.findByPopularNameContainingIgnoreCaseOrScientificNameContainingIgnoreCase(term, term);
+        return searchPlants(PlantSearchMode.NAME, term);
+    }
+    
+    // Buscar plantas pelo modo informado (nome popular, científico ou ambos)
+    public List<Plant> searchPlants(PlantSearchMode mode, String term) {
+        if (isTooShort(term)) {
+            return new ArrayList<>();
+        }
+        if (plantSearchIndex.isReady()) {
+            return searchIndexed(term, mode.getIndexFields());
+        }
+        String normalizedTerm = normalizeTerm(term);
+        return plantCacheService.getSearch(mode.getCacheKey(), normalizedTerm,
+            () -> searchDatabase(mode, likePattern(normalizedTerm), normalizedTerm),
+            ids -> inOrder(ids, plantRepository.findAllById(ids), Plant::getId));
+    }
+    
+    private List<Plant> searchDatabase(PlantSearchMode mode, String pattern, String term) {
+        switch (mode) {
+            case POPULAR:
+                return plantRepository.searchByPopularName(pattern, term, searchMaxResults);
+            case SCIENTIFIC:
+                return plantRepository.searchByScientificName(pattern, term, searchMaxResults);
+            default:
+                return plantRepository.searchByName(pattern, term, searchMaxResults);
+        }
+    }
+    
+    // Busca retornando apenas os resumos; as linhas são leves, então vai direto ao banco sem passar pelo cache
+    public List<PlantSummary> searchPlantSummaries(PlantSearchMode mode, String term) {
+        if (isTooShort(term)) {
+            return new ArrayList<>();
+        }
+        if (plantSearchIndex.isReady()) {
+            List<UUID> ids = plantSearchIndex.search(term, mode.getIndexFields(), searchMaxResults);
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return inOrder(ids, plantRepository.findSummariesByIdIn(ids), PlantSummary::getId);
+        }
+        String normalizedTerm = normalizeTerm(term);
+        String pattern = likePattern(normalizedTerm);
+        switch (mode) {
+            case POPULAR:
+                return plantRepository.searchSummariesByPopularName(pattern, normalizedTerm, searchMaxResults);
+            case SCIENTIFIC:
+                return plantRepository.searchSummariesByScientificName(pattern, normalizedTerm, searchMaxResults);
+            default:
+                return plantRepository.searchSummariesByName(pattern, normalizedTerm, searchMaxResults);
+        }
+    }
+    
+    // Sugestões (id, nome) para o autocompletar a partir do prefixo digitado
+    public List<PlantSuggester.Suggestion> suggestPlants(String prefix, Integer limit) {
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, suggestMaxResults));
+        if (plantSuggester.isReady()) {
+            return plantSuggester.suggest(prefix, size);
+        }
+        // Enquanto a árvore não está pronta, recorre à busca no banco
+        List<PlantSuggester.Suggestion> suggestions = new ArrayList<>();
+        if (isTooShort(prefix)) {
+            return suggestions;
+        }
+        for (Plant plant : plantRepository.searchByName(likePattern(prefix), prefix, size)) {
+            suggestions.add(new PlantSuggester.Suggestion(plant.getId(), matchedName(plant, prefix)));
+        }
+        return suggestions;
+    }
+    
+    // Nome que casou com o prefixo: o científico só quando o popular não começa por ele (nem alguma de suas palavras)
+    private String matchedName(Plant plant, String prefix) {
+        String key = TextNormalizer.normalize(prefix);
+        if (startsWordWith(plant.getPopularName(), key) || !startsWordWith(plant.getScientificName(), key)) {
+            return plant.getPopularName();
+        }
+        return plant.getScientificName();
+    }
+    
+    private boolean startsWordWith(String name, String key) {
+        String normalized = TextNormalizer.normalize(name);
+        return normalized != null && key != null && (normalized.startsWith(key) || normalized.contains(" " + key));
+    }
+    
+    // Resolve a busca no índice em memória e carrega as plantas pela chave primária, mantendo a ordem de relevância
+    private List<Plant> searchIndexed(String term, Set<PlantSearchIndex.Field> fields) {
+        List<UUID> ids = plantSearchIndex.search(term, fields, searchMaxResults);
+        return inOrder(ids, plantRepository.findAllById(ids), Plant::getId);
+    }
+    
+    // Reordena as linhas carregadas pela ordem dos IDs, descartando os que não existem mais
+    private <T> List<T> inOrder(List<UUID> ids, Iterable<T> rows, Function<T, UUID> idOf) {
+        Map<UUID, T> rowsById = new HashMap<>();
+        for (T row : rows) {
+            rowsById.put(idOf.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            T row = rowsById.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+    
+    // A busca ignora maiúsculas e espaços nas pontas, então termos equivalentes compartilham a entrada de cache
+    private String normalizeTerm(String term) {
+        return term.strip().toLowerCase(Locale.ROOT);
+    }
+    
+    // Padrão ILIKE de substring, escapando os curingas digitados pelo usuário
+    private String likePattern(String term) {
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+    
+    // Termos com menos de 3 caracteres não formam trigramas: o índice não os atende e a busca varreria a tabela.
+    // Nesses casos a busca retorna vazio (o autocompletar atende prefixos curtos pela árvore em memória).
+    private boolean isTooShort(String term) {
+        return term == null || term.strip().length() < MIN_SEARCH_TERM_LENGTH;
     }
     
     // Criar nova planta
     @Transactional
     public Plant createPlant(Plant plant) {
-        return plantRepository.save(plant);
+        plant.setUpdatedAt(Instant.now());
+        Plant savedPlant = plantRepository.save(plant);
+        afterCommit(() -> {
+            // O ID na mensagem deixa as outras instâncias atualizarem só esta planta no índice e nas sugestões
+            plantCacheService.invalidate(savedPlant.getId());
+            plantSearchIndex.upsert(savedPlant);
+            plantSuggester.upsert(savedPlant);
+        });
+        return savedPlant;
+    }
+    
+    // Criar várias plantas em uma única transação; com hibernate.jdbc.batch_size os inserts vão em batch JDBC
+    @Transactional
+    public List<Plant> createPlants(List<Plant> plants) {
+        Instant now = Instant.now();
+        for (Plant plant : plants) {
+            plant.setUpdatedAt(now);
+        }
+        List<Plant> savedPlants = plantRepository.saveAll(plants);
+        // Envia os inserts pendentes e libera o contexto de persistência antes do próximo lote
+        plantRepository.flush();
+        entityManager.clear();
+        afterCommit(() -> {
+            // Os IDs do lote (e não "*") deixam as outras instâncias atualizarem só estas plantas
+            List<UUID> ids = new ArrayList<>(savedPlants.size());
+            for (Plant savedPlant : savedPlants) {
+                ids.add(savedPlant.getId());
+            }
+            plantCacheService.invalidate(ids);
+            for (Plant savedPlant : savedPlants) {
+                plantSearchIndex.upsert(savedPlant);
+                plantSuggester.upsert(savedPlant);
+            }
+        });
+        return savedPlants;
     }
     
     // Atualizar planta existente
@@ -120,7 +415,14 @@ public class PlantService {
             if (plantDetails.getImageUrl() != null) {
                 plant.setImageUrl(plantDetails.getImageUrl());
             }
-            return plantRepository.save(plant);
+            plant.setUpdatedAt(Instant.now());
+            Plant savedPlant = plantRepository.save(plant);
+            afterCommit(() -> {
+                plantCacheService.invalidate(id);
+                plantSearchIndex.upsert(savedPlant);
+                plantSuggester.upsert(savedPlant);
+            });
+            return savedPlant;
         }
         return null;
     }
@@ -131,8 +433,27 @@ public class PlantService {
         Plant plant = plantRepository.findById(id).orElse(null);
         if (plant != null) {
             plantRepository.delete(plant);
+            afterCommit(() -> {
+                plantCacheService.invalidate(id);
+                plantSearchIndex.remove(id);
+                plantSuggester.remove(id);
+            });
             return true;
         }
         return false;
     }
+    
+    // Executa a ação somente após o commit, para que estruturas em memória nunca reflitam escritas desfeitas
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
\ No newline at end of file
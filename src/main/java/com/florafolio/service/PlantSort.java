@@ -0,0 +1,56 @@
+package com.florafolio.service;
+
+import com.florafolio.model.Plant;
+import com.florafolio.repository.PlantSummary;
+
+// Chaves de ordenação suportadas pela listagem paginada de plantas
+public enum PlantSort {
+    ID("id"),
+    POPULAR_NAME("popularName"),
+    SCIENTIFIC_NAME("scientificName");
+
+    private final String param;
+
+    PlantSort(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    // Valor da chave de ordenação para a planta (o ID é o critério de desempate)
+    public String keyOf(Plant plant) {
+        switch (this) {
+            case POPULAR_NAME:
+                return plant.getPopularName();
+            case SCIENTIFIC_NAME:
+                return plant.getScientificName();
+            default:
+                return "";
+        }
+    }
+
+    public String keyOf(PlantSummary summary) {
+        switch (this) {
+            case POPULAR_NAME:
+                return summary.getPopularName();
+            case SCIENTIFIC_NAME:
+                return summary.getScientificName();
+            default:
+                return "";
+        }
+    }
+
+    public static PlantSort fromParam(String param) {
+        if (param == null || param.isEmpty()) {
+            return ID;
+        }
+        for (PlantSort sort : values()) {
+            if (sort.param.equalsIgnoreCase(param)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Ordenação inválida: " + param);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.florafolio.service;
+
+import com.florafolio.repository.UserSummary;
+
+import java.util.List;
+
+// Página da listagem administrativa de usuários com o cursor da próxima página (null na última)
+public class UserPage {
+    private final List<UserSummary> users;
+    private final String nextCursor;
+
+    public UserPage(List<UserSummary> users, String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserSummary> getUsers() {
+        return users;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
\ No newline at end of file
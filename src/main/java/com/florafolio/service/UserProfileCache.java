@@ -0,0 +1,94 @@
+package com.florafolio.service;
+
+import com.florafolio.repository.UserProfile;
+import com.florafolio.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Perfis de usuário (id, nome e email) em cache local, por ID e por nome de usuário.
+// Alterações na própria instância removem as entradas após o commit; nas demais, a defasagem fica limitada ao TTL.
+@Component
+public class UserProfileCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.profile-cache.ttl:30}")
+    private long ttlSeconds;
+
+    @Value("${users.profile-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<UUID, UserProfile> byId;
+    private Cache<String, UserProfile> byUsername;
+    // Incrementado a cada remoção; leituras do banco iniciadas antes dela não são gravadas no cache
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        byId = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+        byUsername = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    // Perfil pelo ID, ou null se o usuário não existe (ausências não ficam em cache)
+    public UserProfile getById(UUID id) {
+        UserProfile profile = byId.getIfPresent(id);
+        if (profile == null) {
+            long loadGeneration = generation.get();
+            profile = userRepository.findProfileById(id);
+            if (profile != null && generation.get() == loadGeneration) {
+                byId.put(id, profile);
+                // Uma remoção entre a conferência e o put pode ter rodado antes dele: confere de novo e desfaz
+                if (generation.get() != loadGeneration) {
+                    byId.invalidate(id);
+                }
+            }
+        }
+        return profile;
+    }
+
+    public UserProfile getByUsername(String username) {
+        UserProfile profile = byUsername.getIfPresent(username);
+        if (profile == null) {
+            long loadGeneration = generation.get();
+            profile = userRepository.findProfileByUsername(username);
+            if (profile != null && generation.get() == loadGeneration) {
+                byUsername.put(username, profile);
+                if (generation.get() != loadGeneration) {
+                    byUsername.invalidate(username);
+                }
+            }
+        }
+        return profile;
+    }
+
+    // Remove o perfil pelo ID e todas as entradas por nome que apontam para ele (nome anterior desconhecido)
+    public void evict(UUID id) {
+        generation.incrementAndGet();
+        byId.invalidate(id);
+        byUsername.asMap().values().removeIf(profile -> id.equals(profile.getId()));
+    }
+
+    // Remove o perfil pelo ID e pelo nome de usuário
+    public void evict(UUID id, String username) {
+        generation.incrementAndGet();
+        byId.invalidate(id);
+        if (username != null) {
+            byUsername.invalidate(username);
+        }
+    }
+}
\ No newline at end of file
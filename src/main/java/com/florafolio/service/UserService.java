@@ -1,25 +1,53 @@
 package com.florafolio.service;
 
 import com.florafolio.model.User;
+import com.florafolio.repository.UserProfile;
 import com.florafolio.repository.UserRepository;
+import com.florafolio.repository.UserSummary;
+import com.florafolio.security.PasswordHashingService;
+import com.florafolio.security.TokenVersionCache;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    // BCrypt roda no pool limitado do serviço de hash, fora das threads das requisições
     @Autowired
-    @Lazy
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+    
+    @Value("${users.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${users.page.max-size:200}")
+    private int maxPageSize;
+    
+    // Maior code point: limite superior do intervalo quando não há prefixo (ordem binária = ordem de code points em UTF-8)
+    private static final String MAX_USERNAME_BOUND = new String(Character.toChars(Character.MAX_CODE_POINT));
     
     @PostConstruct
     @Transactional
@@ -29,12 +57,12 @@ public class UserService {
             if (userRepository.count() == 0) {
                 System.out.println("Banco de dados vazio. Criando usuários iniciais...");
                 // Cria o usuário administrador
-                User admin = new User(null, "admin", passwordEncoder.encode("admin123"), "admin@example.com", User.Role.ADMIN);
+                User admin = new User(null, "admin", passwordHashingService.encode("admin123"), "admin@example.com", User.Role.ADMIN);
                 admin = userRepository.save(admin);
                 System.out.println("Usuário admin criado com sucesso. ID: " + admin.getId());
 
                 // Cria o usuário padrão
-                User user = new User(null, "user", passwordEncoder.encode("user123"), "user@example.com", User.Role.USER);
+                User user = new User(null, "user", passwordHashingService.encode("user123"), "user@example.com", User.Role.USER);
                 user = userRepository.save(user);
                 System.out.println("Usuário padrão criado com sucesso. ID: " + user.getId());
             } else {
@@ -42,7 +70,7 @@ public class UserService {
                 User admin = userRepository.findByUsername("admin");
                 if (admin == null) {
                     System.out.println("Usuário admin não encontrado. Criando...");
-                    admin = new User(null, "admin", passwordEncoder.encode("admin123"), "admin@example.com", User.Role.ADMIN);
+                    admin = new User(null, "admin", passwordHashingService.encode("admin123"), "admin@example.com", User.Role.ADMIN);
                     admin = userRepository.save(admin);
                     System.out.println("Usuário admin criado com sucesso. ID: " + admin.getId());
                 } else {
@@ -62,8 +90,9 @@ public class UserService {
             System.out.println("Usuário encontrado: " + user.getUsername());
             System.out.println("Senha armazenada: " + user.getPassword());
             System.out.println("Senha fornecida: " + password);
-            if (passwordEncoder.matches(password, user.getPassword())) {
+            if (passwordHashingService.matches(password, user.getPassword())) {
                 System.out.println("Senha válida para usuário: " + username);
+                upgradePasswordHash(user, password);
                 return user;
             } else {
                 System.out.println("Senha inválida para usuário: " + username);
@@ -74,15 +103,18 @@ public class UserService {
         return null;
     }
     
-    @Transactional
+    // Um único INSERT ... ON CONFLICT: a restrição única do banco decide, sem consulta prévia nem corrida
     public User registerUser(User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
-            return null; // Usuário já existe
-        }
         System.out.println("Senha antes da criptografia: " + user.getPassword());
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
         System.out.println("Senha após criptografia: " + user.getPassword());
-        return userRepository.save(user);
+        user.setId(UUID.randomUUID());
+        int inserted = userRepository.insertIfUsernameAvailable(user.getId(), user.getUsername(), user.getPassword(),
+                user.getEmail(), user.getRole().name());
+        if (inserted == 0) {
+            return null; // Usuário já existe
+        }
+        return user;
     }
 
     
@@ -92,13 +124,96 @@ public class UserService {
         User user = userRepository.findById(id).orElse(null);
         if (user != null) {
             userRepository.delete(user);
+            afterCommit(() -> {
+                tokenVersionCache.evict(id);
+                userProfileCache.evict(id, user.getUsername());
+            });
             return user;
         }
         return null;
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // Página de usuários ordenada pelo nome (paginação por chave), com filtros opcionais de papel e prefixo do nome
+    public UserPage getUsersPage(String role, String prefix, String cursorToken, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+        }
+        String roleFilter = resolveRole(role);
+        String from = prefix == null ? "" : prefix;
+        String to = upperBound(from);
+        String after = decodeUserCursor(cursorToken);
+        
+        // Busca um registro a mais para saber se existe próxima página
+        PageRequest pageable = PageRequest.of(0, pageSize + 1);
+        List<UserSummary> users = roleFilter == null
+            ? userRepository.findSummaryPage(after, from, to, pageable)
+            : userRepository.findSummaryPageByRole(roleFilter, after, from, to, pageable);
+        if (users.size() <= pageSize) {
+            return new UserPage(users, null);
+        }
+        List<UserSummary> page = users.subList(0, pageSize);
+        return new UserPage(page, encodeUserCursor(page.get(pageSize - 1).getUsername()));
+    }
+    
+    // Percorre os usuários filtrados com cursor no servidor, sem materializar a tabela (projeções, sem entidades)
+    @Transactional(readOnly = true)
+    public long streamUsers(String role, String prefix, Consumer<UserSummary> consumer) {
+        String roleFilter = resolveRole(role);
+        String from = prefix == null ? "" : prefix;
+        String to = upperBound(from);
+        long count = 0;
+        try (Stream<UserSummary> users = roleFilter == null
+                ? userRepository.streamSummaries("", from, to)
+                : userRepository.streamSummariesByRole(roleFilter, "", from, to)) {
+            Iterator<UserSummary> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    // Nome do papel para o filtro (null = todos); lança IllegalArgumentException se o papel não existe
+    public String resolveRole(String role) {
+        if (role == null || role.isEmpty()) {
+            return null;
+        }
+        try {
+            return User.Role.valueOf(role.toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Papel inválido: " + role);
+        }
+    }
+    
+    // Menor texto maior que todos os que começam com o prefixo: incrementa o último code point
+    private static String upperBound(String prefix) {
+        String head = prefix;
+        while (!head.isEmpty()) {
+            int last = head.codePointBefore(head.length());
+            head = head.substring(0, head.length() - Character.charCount(last));
+            if (last < Character.MAX_CODE_POINT) {
+                int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+                return head + new String(Character.toChars(next));
+            }
+        }
+        return MAX_USERNAME_BOUND;
+    }
+    
+    private static String encodeUserCursor(String lastUsername) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastUsername.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String decodeUserCursor(String token) {
+        if (token == null || token.isEmpty()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
     }
     
     public User getUserByUsername(String username) {
@@ -109,33 +224,76 @@ public class UserService {
         return userRepository.findById(id).orElse(null);
     }
 
+    // Perfil (id, nome e email) sem carregar a entidade, via cache
+    public UserProfile getProfileById(UUID id) {
+        return userProfileCache.getById(id);
+    }
+
+    public UserProfile getProfileByUsername(String username) {
+        return userProfileCache.getByUsername(username);
+    }
+
     @Transactional
     public boolean updatePasswordById(UUID id, String newPassword) {
         User user = userRepository.findById(id).orElse(null);
         if (user != null) {
-            user.setPassword(passwordEncoder.encode(newPassword));
+            user.setPassword(passwordHashingService.encode(newPassword));
             userRepository.save(user);
+            afterCommit(() -> userProfileCache.evict(id, user.getUsername()));
             return true;
         }
         return false;
     }
 
-    @Transactional
+    // Um único UPDATE; um nome já usado é recusado pela restrição única (sem transação aqui, para que a
+    // violação capturada não deixe uma transação externa marcada para rollback)
     public boolean updateUsernameById(UUID id, String newUsername) {
-        if (userRepository.existsByUsername(newUsername)) {
+        int updated;
+        try {
+            // Tokens emitidos com o nome antigo deixam de valer (versão incrementada no mesmo UPDATE)
+            updated = userRepository.updateUsername(id, newUsername);
+        } catch (DataIntegrityViolationException e) {
             return false; // Novo nome de usuário já existe
         }
-        
-        User user = userRepository.findById(id).orElse(null);
-        if (user != null) {
-            user.setUsername(newUsername);
-            userRepository.save(user);
-            return true;
+        if (updated == 0) {
+            return false;
         }
-        return false;
+        tokenVersionCache.evict(id);
+        // O nome anterior não é lido antes do UPDATE; as entradas do usuário são localizadas pelo ID
+        userProfileCache.evict(id);
+        return true;
     }
 
-    public PasswordEncoder getPasswordEncoder() {
-        return passwordEncoder;
+    public boolean passwordMatches(String rawPassword, String encodedPassword) {
+        return passwordHashingService.matches(rawPassword, encodedPassword);
+    }
+
+    // Refaz o hash com o custo atual se o armazenado for mais fraco; a falha não impede o login
+    private void upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            String upgraded = passwordHashingService.encode(rawPassword);
+            if (userRepository.replacePasswordHash(user.getId(), user.getPassword(), upgraded) == 1) {
+                user.setPassword(upgraded);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao atualizar o hash da senha: " + e.getMessage());
+        }
+    }
+    
+    // Executa a ação somente após o commit, para que o cache não seja repopulado com o valor antigo
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
\ No newline at end of file
@@ -2,8 +2,10 @@ package com.florafolio;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class start {
     public static void main(String[] args) {
         SpringApplication.run(start.class, args);
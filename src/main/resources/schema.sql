@@ -0,0 +1,13 @@
+-- Executado após o Hibernate criar as tabelas (spring.jpa.defer-datasource-initialization=true)
+
+-- Trigramas permitem que buscas por substring (ILIKE '%termo%') usem índice
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Índices GIN de trigramas sobre os nomes usados na busca de plantas
+CREATE INDEX IF NOT EXISTS idx_plants_popular_name_trgm ON plants USING gin (popular_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_plants_scientific_name_trgm ON plants USING gin (scientific_name gin_trgm_ops);
+
+-- Listagem administrativa de usuários em ordem binária: keyset pelo nome e filtro por prefixo viram
+-- limites da varredura do índice, com ou sem o filtro de papel
+CREATE INDEX IF NOT EXISTS idx_users_username_c ON users (username COLLATE "C");
+CREATE INDEX IF NOT EXISTS idx_users_role_username_c ON users (role, username COLLATE "C");
\ No newline at end of file